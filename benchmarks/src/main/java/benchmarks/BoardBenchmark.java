@@ -0,0 +1,59 @@
+package benchmarks;
+
+import domain.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({ "15", "1000", "100000" })
+    public int deckSize;
+
+    private Board board;
+    private int[] ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Card> cards = new ArrayList<>(deckSize);
+        ids = new int[deckSize];
+        for (int i = 0; i < deckSize; i++) {
+            Map<ChipColor, Integer> cost = new EnumMap<>(ChipColor.class);
+            cost.put(ChipColor.values()[i % ChipColor.values().length], 1 + i % 3);
+            cards.add(new Card(i + 1, cost, 1 + i % 5));
+            ids[i] = i + 1;
+        }
+        board = new Board(cards);
+        next = 0;
+    }
+
+    private int nextId() {
+        int id = ids[next];
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return id;
+    }
+
+    @Benchmark
+    public Card getCard() throws IllegalMoveException {
+        return board.getCard(nextId());
+    }
+
+    // Puts the card straight back so the board never runs out.
+    @Benchmark
+    public Card removeCard() throws IllegalMoveException {
+        int id = nextId();
+        int slot = board.slotOf(id);
+        Card card = board.removeCard(id);
+        board.restoreSlot(slot);
+        return card;
+    }
+}
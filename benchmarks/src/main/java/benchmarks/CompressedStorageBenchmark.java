@@ -0,0 +1,68 @@
+package benchmarks;
+
+import datasource.CompressedGameStorage;
+import datasource.GameStorage;
+import domain.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Save and load through CompressedGameStorage against the plain in-memory
+// storage. The stored size, i.e. the disk footprint, is printed once per
+// trial; loadRange reads one block-sized slice from the middle of the save.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressedStorageBenchmark {
+    @Param({ "1000", "100000" })
+    public int moves;
+
+    @Param({ "text", "binary" })
+    public String codec;
+
+    @Param({ "plain", "compressed" })
+    public String storage;
+
+    private InMemoryGameStorage stored;
+    private GameStorage gameStorage;
+    private GameSaver saver;
+    private Game game;
+    private Game target;
+    private int saveSize;
+
+    @Setup
+    public void setup() {
+        stored = new InMemoryGameStorage();
+        gameStorage = "compressed".equals(storage) ? new CompressedGameStorage(stored) : stored;
+        saver = new GameSaver(gameStorage, "binary".equals(codec) ? new BinaryGameCodec() : new TextGameCodec(), 0);
+        game = Games.withMoves(moves, null);
+        saver.saveGame(game);
+        target = Games.newGame(null);
+        saveSize = gameStorage.load().length;
+        System.out.printf("%n%s %s save of %d moves: %d bytes stored for %d bytes of data (%.1f%%)%n", storage,
+                codec, moves, stored.load().length, saveSize, 100.0 * stored.load().length / saveSize);
+    }
+
+    @Benchmark
+    public void saveGame() {
+        saver.saveGame(game);
+    }
+
+    @Benchmark
+    public Game loadGame() {
+        saver.loadGame(target);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] loadRange() {
+        if (gameStorage instanceof CompressedGameStorage) {
+            return ((CompressedGameStorage) gameStorage).loadRange(saveSize / 2, CompressedGameStorage.DEFAULT_BLOCK_SIZE);
+        }
+        byte[] data = gameStorage.load();
+        int from = Math.min(saveSize / 2, data.length);
+        return java.util.Arrays.copyOfRange(data, from, Math.min(data.length, from + CompressedGameStorage.DEFAULT_BLOCK_SIZE));
+    }
+}
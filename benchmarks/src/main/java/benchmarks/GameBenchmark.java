@@ -0,0 +1,41 @@
+package benchmarks;
+
+import domain.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Each operation is undone again so the game, its move log and its history
+// stay the same size for the whole run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = Games.newGame(null);
+        for (Player player : game.getPlayers()) {
+            for (ChipColor color : ChipColor.values()) {
+                player.takeChip(color, 1_000_000);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean buyCardAndUndo() throws IllegalMoveException {
+        game.buyCard(15);
+        return game.undo();
+    }
+
+    @Benchmark
+    public boolean takeChipIncrementalAndUndo() throws IllegalMoveException {
+        game.takeChipIncremental(ChipColor.RED);
+        game.takeChipIncremental(ChipColor.BLUE);
+        game.takeChipIncremental(ChipColor.GREEN);
+        return game.undo();
+    }
+}
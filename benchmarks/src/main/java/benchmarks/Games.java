@@ -0,0 +1,38 @@
+package benchmarks;
+
+import domain.*;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Games {
+    private static final ChipColor[] COLORS = ChipColor.values();
+
+    private Games() {
+    }
+
+    static Game newGame(GameSaver saver) {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1", new HumanClickStrategy()));
+        players.add(new Player("Player 2", new HumanClickStrategy()));
+        return new Game(new Board(), players, saver);
+    }
+
+    // Chip moves never end the game, so a log of any length can be built by
+    // cycling through take-two and take-three moves.
+    static Game withMoves(int moveCount, GameSaver saver) {
+        Game game = newGame(saver);
+        try {
+            for (int i = 0; i < moveCount; i++) {
+                ChipColor color = COLORS[i % COLORS.length];
+                if (i % 2 == 0) {
+                    game.takeTwo(color);
+                } else {
+                    game.takeThree(color, COLORS[(i + 1) % COLORS.length], COLORS[(i + 2) % COLORS.length]);
+                }
+            }
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException(e);
+        }
+        return game;
+    }
+}
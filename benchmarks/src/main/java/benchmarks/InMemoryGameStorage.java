@@ -0,0 +1,45 @@
+package benchmarks;
+
+import datasource.GameStorage;
+import java.io.ByteArrayOutputStream;
+
+// Keeps saves in memory so the saver benchmarks measure encoding and decoding
+// rather than the disk.
+public class InMemoryGameStorage implements GameStorage {
+    private byte[] data;
+    private final ByteArrayOutputStream journal = new ByteArrayOutputStream();
+
+    @Override
+    public void save(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public byte[] load() {
+        return data == null ? new byte[0] : data;
+    }
+
+    @Override
+    public boolean exists() {
+        return data != null;
+    }
+
+    @Override
+    public void backup() {
+    }
+
+    @Override
+    public void appendJournal(byte[] data) {
+        journal.write(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] loadJournal() {
+        return journal.toByteArray();
+    }
+
+    @Override
+    public void clearJournal() {
+        journal.reset();
+    }
+}
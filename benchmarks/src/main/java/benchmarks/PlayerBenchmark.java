@@ -0,0 +1,38 @@
+package benchmarks;
+
+import domain.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    private Player player;
+    private Card affordable;
+    private Card unaffordable;
+
+    @Setup
+    public void setup() throws IllegalMoveException {
+        player = new Player("Player 1", new HumanClickStrategy());
+        player.takeChip(ChipColor.RED, 3);
+        player.takeChip(ChipColor.BLUE, 3);
+        player.takeChip(ChipColor.GREEN, 1);
+        Board board = new Board();
+        affordable = board.getCard(14);
+        unaffordable = board.getCard(15);
+    }
+
+    @Benchmark
+    public boolean canAffordTrue() {
+        return player.canAfford(affordable);
+    }
+
+    @Benchmark
+    public boolean canAffordFalse() {
+        return player.canAfford(unaffordable);
+    }
+}
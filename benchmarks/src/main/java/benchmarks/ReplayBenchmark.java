@@ -0,0 +1,47 @@
+package benchmarks;
+
+import domain.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Steps wrap around at either end of the log; the occasional seek that
+// causes is spread over the whole log's worth of steps.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    @Param({ "100", "10000" })
+    public int moves;
+
+    private ReplayController forward;
+    private ReplayController backward;
+
+    @Setup
+    public void setup() {
+        Game game = Games.withMoves(moves, null);
+        forward = new ReplayController(game);
+        backward = new ReplayController(game);
+        backward.seekTo(moves);
+    }
+
+    @Benchmark
+    public int stepForward() {
+        if (forward.getCurrentIndex() == forward.getTotalMoves()) {
+            forward.seekTo(0);
+        }
+        forward.stepForward();
+        return forward.getCurrentIndex();
+    }
+
+    @Benchmark
+    public int stepBackward() {
+        if (backward.getCurrentIndex() == 0) {
+            backward.seekTo(backward.getTotalMoves());
+        }
+        backward.stepBackward();
+        return backward.getCurrentIndex();
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import domain.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Full snapshot save and load through an in-memory storage, so only the codec
+// and the replay into a Game are measured.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SaverBenchmark {
+    @Param({ "10", "1000", "100000" })
+    public int moves;
+
+    @Param({ "text", "binary" })
+    public String codec;
+
+    private GameSaver saver;
+    private Game game;
+    private Game target;
+
+    @Setup
+    public void setup() {
+        InMemoryGameStorage storage = new InMemoryGameStorage();
+        saver = new GameSaver(storage, "binary".equals(codec) ? new BinaryGameCodec() : new TextGameCodec(), 0);
+        game = Games.withMoves(moves, null);
+        saver.saveGame(game);
+        target = Games.newGame(null);
+    }
+
+    @Benchmark
+    public void saveGame() {
+        saver.saveGame(game);
+    }
+
+    @Benchmark
+    public Game loadGame() {
+        saver.loadGame(target);
+        return target;
+    }
+}
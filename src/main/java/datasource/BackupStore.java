@@ -0,0 +1,363 @@
+package datasource;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Deduplicating backup store. Each backup's save and journal are cut into
+// content-defined chunks with a Gear rolling hash, so an edit only changes
+// the chunks around it and saves that share a run of moves share those
+// chunks even when it sits at a different offset. Chunks are stored once,
+// named by their SHA-256, under chunks/<first two hex digits>/.
+//
+// The index file lists every backup with its source and chunk hashes and is
+// rewritten atomically on each change. It is held in memory, so listing and
+// finding a backup never touch the directory. Chunks are reference counted,
+// and a chunk is deleted once the retention policy has evicted the last
+// backup that uses it and the index without that backup is on disk. Chunks
+// left behind by a crash are swept when the store is opened.
+public class BackupStore {
+    private static final String INDEX_FILE = "index";
+    private static final String CHUNK_DIRECTORY = "chunks";
+    private static final String INDEX_HEADER = "BACKUPS 2";
+
+    private static final int MIN_CHUNK = 256;
+    private static final int MAX_CHUNK = 8192;
+    // A boundary wherever the top 10 bits of the hash are zero: about 1 KiB
+    // between boundaries on top of the minimum.
+    private static final long BOUNDARY_MASK = 0x3FFL << 54;
+    private static final long[] GEAR = createGear();
+
+    private final Path directory;
+    private final RetentionPolicy policy;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    private final List<Entry> entryList = new ArrayList<>();
+    private volatile List<Entry> listed = Collections.emptyList();
+    private final Map<String, Integer> references = new HashMap<>();
+    private long nextId = 1;
+
+    private BackupStore(Path directory, RetentionPolicy policy) {
+        this.directory = directory;
+        this.policy = policy;
+    }
+
+    public static BackupStore open(Path directory, RetentionPolicy policy) throws IOException {
+        Files.createDirectories(directory.resolve(CHUNK_DIRECTORY));
+        BackupStore store = new BackupStore(directory, policy);
+        store.readIndex();
+        store.sweepOrphans();
+        store.listed = Collections.unmodifiableList(new ArrayList<>(store.entryList));
+        return store;
+    }
+
+    private static long[] createGear() {
+        SplittableRandom random = new SplittableRandom(0x43435342L);
+        long[] gear = new long[256];
+        for (int i = 0; i < gear.length; i++) {
+            gear[i] = random.nextLong();
+        }
+        return gear;
+    }
+
+    // Backups are grouped by source (the save file they came from), and the
+    // retention policy counts newer backups within each source.
+    public synchronized Entry add(String source, byte[] save, byte[] journal) throws IOException {
+        if (source.isEmpty() || source.indexOf('\n') >= 0 || source.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Invalid backup source: " + source);
+        }
+        Entry entry = new Entry(nextId++, System.currentTimeMillis(), source, save.length, journal.length,
+                storeChunks(save), storeChunks(journal));
+        addEntry(entry);
+        List<String> unused = applyRetention(entry.getTimestamp());
+        writeIndex();
+        listed = Collections.unmodifiableList(new ArrayList<>(entryList));
+        for (String hash : unused) {
+            Files.deleteIfExists(chunkPath(hash));
+        }
+        return entry;
+    }
+
+    // Oldest first. The list is rebuilt on every change, so reading it costs
+    // nothing and never waits on a backup in progress.
+    public List<Entry> list() {
+        return listed;
+    }
+
+    public synchronized Entry get(long id) {
+        return entries.get(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int getChunkCount() {
+        return references.size();
+    }
+
+    // Chunks are read outside the lock, so restores run in parallel; one that
+    // races the eviction of its backup fails with an IOException.
+    public byte[] restoreSave(long id) throws IOException {
+        Entry entry = require(id);
+        return readChunks(entry.saveChunks, entry.saveSize);
+    }
+
+    public byte[] restoreJournal(long id) throws IOException {
+        Entry entry = require(id);
+        return readChunks(entry.journalChunks, entry.journalSize);
+    }
+
+    // Replaces target's save and journal with the backup's.
+    public void restore(long id, GameStorage target) throws IOException {
+        byte[] save = restoreSave(id);
+        byte[] journal = restoreJournal(id);
+        target.save(save);
+        target.clearJournal();
+        if (journal.length > 0) {
+            target.appendJournal(journal);
+        }
+    }
+
+    private synchronized Entry require(long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new IllegalArgumentException("No backup with id " + id);
+        }
+        return entry;
+    }
+
+    private List<String> storeChunks(byte[] data) throws IOException {
+        List<String> hashes = new ArrayList<>();
+        int start = 0;
+        while (start < data.length) {
+            int end = nextBoundary(data, start);
+            String hash = sha256(data, start, end - start);
+            Path chunk = chunkPath(hash);
+            if (!references.containsKey(hash) && !Files.exists(chunk)) {
+                Files.createDirectories(chunk.getParent());
+                Path temp = chunk.resolveSibling(hash + ".tmp");
+                Files.write(temp, Arrays.copyOfRange(data, start, end));
+                Files.move(temp, chunk, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            hashes.add(hash);
+            start = end;
+        }
+        return hashes;
+    }
+
+    static int nextBoundary(byte[] data, int start) {
+        int limit = Math.min(data.length, start + MAX_CHUNK);
+        int position = Math.min(limit, start + MIN_CHUNK);
+        long hash = 0;
+        for (int i = Math.max(start, position - 64); i < position; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+        }
+        while (position < limit) {
+            hash = (hash << 1) + GEAR[data[position++] & 0xFF];
+            if ((hash & BOUNDARY_MASK) == 0) {
+                return position;
+            }
+        }
+        return position;
+    }
+
+    private byte[] readChunks(List<String> hashes, int size) throws IOException {
+        byte[] data = new byte[size];
+        int position = 0;
+        for (String hash : hashes) {
+            byte[] chunk = Files.readAllBytes(chunkPath(hash));
+            if (position + chunk.length > size || !hash.equals(sha256(chunk, 0, chunk.length))) {
+                throw new IOException("Backup chunk " + hash + " is corrupt");
+            }
+            System.arraycopy(chunk, 0, data, position, chunk.length);
+            position += chunk.length;
+        }
+        if (position != size) {
+            throw new IOException("Backup is missing data: " + position + " of " + size + " bytes");
+        }
+        return data;
+    }
+
+    private void addEntry(Entry entry) {
+        entries.put(entry.getId(), entry);
+        entryList.add(entry);
+        for (String hash : entry.allChunks()) {
+            references.merge(hash, 1, Integer::sum);
+        }
+    }
+
+    // Drops the backups the policy no longer keeps and returns the chunks
+    // nothing references any more. They are deleted only after the index is
+    // written, so a crash never leaves the index pointing at missing chunks.
+    private List<String> applyRetention(long now) {
+        Map<String, Integer> newer = new HashMap<>();
+        List<Entry> evicted = new ArrayList<>();
+        for (int i = entryList.size() - 1; i >= 0; i--) {
+            Entry entry = entryList.get(i);
+            int newerBackups = newer.merge(entry.getSource(), 1, Integer::sum) - 1;
+            if (newerBackups > 0 && !policy.keep(entry, newerBackups, now)) {
+                evicted.add(entry);
+            }
+        }
+        List<String> unused = new ArrayList<>();
+        for (Entry entry : evicted) {
+            entries.remove(entry.getId());
+            entryList.remove(entry);
+            for (String hash : entry.allChunks()) {
+                if (references.merge(hash, -1, Integer::sum) == 0) {
+                    references.remove(hash);
+                    unused.add(hash);
+                }
+            }
+        }
+        return unused;
+    }
+
+    // Removes chunk files the index does not reference, left behind when a
+    // crash lands between writing the index and deleting evicted chunks, or
+    // while a backup's chunks were being stored.
+    private void sweepOrphans() throws IOException {
+        List<Path> orphans = new ArrayList<>();
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(directory.resolve(CHUNK_DIRECTORY))) {
+            for (Path prefix : prefixes) {
+                if (!Files.isDirectory(prefix)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> chunks = Files.newDirectoryStream(prefix)) {
+                    for (Path chunk : chunks) {
+                        if (!references.containsKey(chunk.getFileName().toString())) {
+                            orphans.add(chunk);
+                        }
+                    }
+                }
+            }
+        }
+        for (Path orphan : orphans) {
+            Files.deleteIfExists(orphan);
+        }
+    }
+
+    private Path chunkPath(String hash) {
+        return directory.resolve(CHUNK_DIRECTORY).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // One line per backup: id, timestamp, save size, journal size, the save
+    // and journal chunk hashes as comma-separated lists ("-" if none), then
+    // the source, which runs to the end of the line. The file is UTF-8 since
+    // sources are arbitrary paths.
+    private void readIndex() throws IOException {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try (BufferedReader in = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            if (!INDEX_HEADER.equals(in.readLine())) {
+                throw new IOException("Not a backup index: " + index);
+            }
+            nextId = Long.parseLong(in.readLine().trim());
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split(" ", 7);
+                if (fields.length != 7) {
+                    throw new IOException("Malformed backup index line: " + line);
+                }
+                addEntry(new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[6],
+                        Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), parseHashes(fields[4]),
+                        parseHashes(fields[5])));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed backup index: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        StringBuilder sb = new StringBuilder(INDEX_HEADER).append('\n').append(nextId).append('\n');
+        for (Entry entry : entryList) {
+            sb.append(entry.getId()).append(' ').append(entry.getTimestamp()).append(' ')
+                    .append(entry.getSaveSize()).append(' ').append(entry.getJournalSize()).append(' ')
+                    .append(joinHashes(entry.saveChunks)).append(' ').append(joinHashes(entry.journalChunks))
+                    .append(' ').append(entry.getSource()).append('\n');
+        }
+        Path index = directory.resolve(INDEX_FILE);
+        Path temp = directory.resolve(INDEX_FILE + ".tmp");
+        Files.write(temp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<String> parseHashes(String field) {
+        return field.equals("-") ? Collections.emptyList() : Arrays.asList(field.split(","));
+    }
+
+    private static String joinHashes(List<String> hashes) {
+        return hashes.isEmpty() ? "-" : String.join(",", hashes);
+    }
+
+    private static String sha256(byte[] data, int offset, int length) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(data, offset, length);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit(b >>> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public static class Entry {
+        private final long id;
+        private final long timestamp;
+        private final String source;
+        private final int saveSize;
+        private final int journalSize;
+        private final List<String> saveChunks;
+        private final List<String> journalChunks;
+
+        Entry(long id, long timestamp, String source, int saveSize, int journalSize, List<String> saveChunks,
+                List<String> journalChunks) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.source = source;
+            this.saveSize = saveSize;
+            this.journalSize = journalSize;
+            this.saveChunks = saveChunks;
+            this.journalChunks = journalChunks;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public int getSaveSize() {
+            return saveSize;
+        }
+
+        public int getJournalSize() {
+            return journalSize;
+        }
+
+        public int getChunkCount() {
+            return saveChunks.size() + journalChunks.size();
+        }
+
+        private List<String> allChunks() {
+            List<String> all = new ArrayList<>(saveChunks);
+            all.addAll(journalChunks);
+            return all;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package datasource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Deflates saves and journal appends on their way to another storage. Data is
+// cut into independently compressed blocks, each written as a frame:
+//
+//   0xCF, varint raw length, varint (stored length << 1 | deflated flag), bytes
+//
+// A read of part of a save only inflates the blocks it overlaps. Blocks that
+// deflate to no smaller are stored as-is. Files that do not start with a frame
+// marker were written without compression and are read unchanged, so existing
+// saves keep loading. 0xCF can never start a text save, a binary move or a
+// journal header, and the binary save magic starts with 'C'.
+//
+// The format is fixed per file, never per append. A journal is framed only if
+// its first append is at least JOURNAL_THRESHOLD bytes; most journals are a
+// few moves at a time and are cleared by the next snapshot, so they stay raw
+// instead of paying a frame header per move. Later appends follow whatever the
+// journal already holds, so raw and framed data never mix in one file.
+//
+// This is opt-in: GameMain and GameServerMain write uncompressed files, which
+// ValidateSavesMain, BackupMain and replay read directly.
+public class CompressedGameStorage implements GameStorage {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    public static final int JOURNAL_THRESHOLD = 4096;
+
+    private static final int FRAME_MARKER = 0xCF;
+    private static final int MAX_HEADER = 11;
+
+    private final GameStorage delegate;
+    private final int blockSize;
+    private final int level;
+    // Whether the journal on disk is framed; null until it is known to exist.
+    private Boolean journalFramed;
+
+    public CompressedGameStorage(GameStorage delegate) {
+        this(delegate, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public CompressedGameStorage(GameStorage delegate, int blockSize, int level) {
+        this.delegate = delegate;
+        this.blockSize = blockSize;
+        this.level = level;
+    }
+
+    @Override
+    public void save(byte[] data) {
+        delegate.save(compress(data));
+    }
+
+    @Override
+    public synchronized void appendJournal(byte[] data) {
+        if (journalFramed == null) {
+            ByteBuffer existing = delegate.loadJournalView();
+            journalFramed = existing.hasRemaining() ? isCompressed(existing) : data.length >= JOURNAL_THRESHOLD;
+        }
+        delegate.appendJournal(journalFramed ? compress(data) : data);
+    }
+
+    @Override
+    public byte[] load() {
+        return toArray(loadView());
+    }
+
+    @Override
+    public byte[] loadJournal() {
+        return toArray(loadJournalView());
+    }
+
+    @Override
+    public ByteBuffer loadView() {
+        return decompress(delegate.loadView());
+    }
+
+    @Override
+    public ByteBuffer loadJournalView() {
+        return decompress(delegate.loadJournalView());
+    }
+
+    @Override
+    public boolean exists() {
+        return delegate.exists();
+    }
+
+    @Override
+    public void backup() {
+        delegate.backup();
+    }
+
+    @Override
+    public synchronized void clearJournal() {
+        delegate.clearJournal();
+        journalFramed = null;
+    }
+
+    // Returns length bytes of the save starting at offset, inflating only the
+    // blocks that overlap them. Fewer bytes come back if the save is shorter.
+    public byte[] loadRange(long offset, int length) {
+        ByteBuffer stored = delegate.loadView();
+        if (!isCompressed(stored)) {
+            int start = (int) Math.min(offset, stored.remaining());
+            byte[] range = new byte[Math.min(length, stored.remaining() - start)];
+            stored.position(stored.position() + start);
+            stored.get(range);
+            return range;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        Inflater inflater = new Inflater();
+        try {
+            long blockStart = 0;
+            long end = offset + length;
+            while (stored.hasRemaining() && blockStart < end) {
+                Frame frame = readFrame(stored);
+                long blockEnd = blockStart + frame.rawLength;
+                if (blockEnd > offset) {
+                    byte[] block = inflate(stored, frame, inflater);
+                    int from = (int) Math.max(0, offset - blockStart);
+                    int to = (int) Math.min(frame.rawLength, end - blockStart);
+                    out.write(block, from, to - from);
+                } else {
+                    stored.position(stored.position() + frame.storedLength);
+                }
+                blockStart = blockEnd;
+            }
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] compress(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + MAX_HEADER);
+        Deflater deflater = new Deflater(level);
+        byte[] buffer = new byte[blockSize + blockSize / 8 + 64];
+        try {
+            for (int start = 0; start < data.length; start += blockSize) {
+                int rawLength = Math.min(blockSize, data.length - start);
+                deflater.reset();
+                deflater.setInput(data, start, rawLength);
+                deflater.finish();
+                int storedLength = 0;
+                while (!deflater.finished() && storedLength < rawLength) {
+                    storedLength += deflater.deflate(buffer, storedLength, buffer.length - storedLength);
+                }
+
+                boolean deflated = deflater.finished() && storedLength < rawLength;
+                out.write(FRAME_MARKER);
+                writeVarInt(out, rawLength);
+                if (deflated) {
+                    writeVarInt(out, storedLength << 1 | 1);
+                    out.write(buffer, 0, storedLength);
+                } else {
+                    writeVarInt(out, rawLength << 1);
+                    out.write(data, start, rawLength);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer decompress(ByteBuffer stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stored.remaining() * 4);
+        Inflater inflater = new Inflater();
+        try {
+            while (stored.hasRemaining()) {
+                byte[] block = inflate(stored, readFrame(stored), inflater);
+                out.write(block, 0, block.length);
+            }
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static boolean isCompressed(ByteBuffer stored) {
+        return stored.hasRemaining() && (stored.get(stored.position()) & 0xFF) == FRAME_MARKER;
+    }
+
+    private static Frame readFrame(ByteBuffer in) {
+        if ((in.get() & 0xFF) != FRAME_MARKER) {
+            throw new IllegalArgumentException("Corrupt compressed save: missing frame marker");
+        }
+        int rawLength = readVarInt(in);
+        int stored = readVarInt(in);
+        return new Frame(rawLength, stored >>> 1, (stored & 1) != 0);
+    }
+
+    private static byte[] inflate(ByteBuffer in, Frame frame, Inflater inflater) {
+        byte[] block = new byte[frame.rawLength];
+        if (!frame.deflated) {
+            in.get(block);
+            return block;
+        }
+        ByteBuffer input = in.slice();
+        input.limit(frame.storedLength);
+        in.position(in.position() + frame.storedLength);
+
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int length = 0;
+            while (length < block.length && !inflater.finished()) {
+                int read = inflater.inflate(block, length, block.length - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != block.length) {
+                throw new IllegalArgumentException("Corrupt compressed save: short block");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed save: " + e.getMessage(), e);
+        }
+        return block;
+    }
+
+    private static byte[] toArray(ByteBuffer view) {
+        if (view.hasArray() && view.arrayOffset() == 0 && view.position() == 0
+                && view.remaining() == view.array().length) {
+            return view.array();
+        }
+        byte[] data = new byte[view.remaining()];
+        view.duplicate().get(data);
+        return data;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IllegalArgumentException("Corrupt compressed save: malformed varint");
+            }
+        }
+    }
+
+    private static class Frame {
+        final int rawLength;
+        final int storedLength;
+        final boolean deflated;
+
+        Frame(int rawLength, int storedLength, boolean deflated) {
+            this.rawLength = rawLength;
+            this.storedLength = storedLength;
+            this.deflated = deflated;
+        }
+    }
+}
@@ -4,40 +4,88 @@ import java.io.*;
 import java.nio.file.*;
 
 public class FileGameStorage implements GameStorage {
+    private static final String JOURNAL_SUFFIX = ".journal";
+
     private final String filePath;
+    private final String journalPath;
+    private final BackupStore backups;
 
     public FileGameStorage(String filePath) {
+        this(filePath, null);
+    }
+
+    // Backups go to the store when one is given, otherwise to a timestamped
+    // copy next to the save.
+    public FileGameStorage(String filePath, BackupStore backups) {
         this.filePath = filePath;
+        this.journalPath = filePath + JOURNAL_SUFFIX;
+        this.backups = backups;
+    }
+
+    Path getFilePath() {
+        return Paths.get(filePath);
+    }
+
+    Path getJournalPath() {
+        return Paths.get(journalPath);
     }
 
     @Override
     public void backup() {
-        String data;
+        Path save = Paths.get(filePath);
+        Path journal = Paths.get(journalPath);
+        if (!Files.exists(save)) {
+            return;
+        }
         try {
-            data = Files.readString(Paths.get("gamesave.txt"));
-            String backupFilePath = "gamesave_" + System.currentTimeMillis() + ".txt";
-            Files.writeString(Paths.get(backupFilePath), data);
+            if (backups != null) {
+                byte[] journalData = Files.exists(journal) ? Files.readAllBytes(journal) : new byte[0];
+                backups.add(filePath, Files.readAllBytes(save), journalData);
+                return;
+            }
+
+            String backupFilePath = backupPath(System.currentTimeMillis());
+            Files.copy(save, Paths.get(backupFilePath));
+            if (Files.exists(journal)) {
+                Files.copy(journal, Paths.get(backupFilePath + JOURNAL_SUFFIX));
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    // gamesave.sav becomes gamesave_<timestamp>.sav in the same directory, so
+    // the copies match the same *.sav pattern as the save.
+    private String backupPath(long timestamp) {
+        int dot = filePath.lastIndexOf('.');
+        if (dot <= filePath.lastIndexOf(File.separatorChar)) {
+            return filePath + "_" + timestamp;
+        }
+        return filePath.substring(0, dot) + "_" + timestamp + filePath.substring(dot);
+    }
+
+    // Writes go to a sibling file that is renamed over the save, so a crash
+    // leaves either the old save or the new one, and a buffer mapped from the
+    // previous version stays valid instead of being truncated.
     @Override
-    public void save(String data) {
+    public void save(byte[] data) {
+        Path target = Paths.get(filePath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
-            Files.writeString(Paths.get(filePath), data);
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             System.err.println("Error saving game: " + e.getMessage());
         }
     }
 
     @Override
-    public String load() {
+    public byte[] load() {
         try {
-            return Files.readString(Paths.get(filePath));
+            return Files.readAllBytes(Paths.get(filePath));
         } catch (IOException e) {
             System.err.println("Error loading game: " + e.getMessage());
-            return "";
+            return new byte[0];
         }
     }
 
@@ -45,4 +93,37 @@ public class FileGameStorage implements GameStorage {
     public boolean exists() {
         return Files.exists(Paths.get(filePath));
     }
+
+    @Override
+    public void appendJournal(byte[] data) {
+        try {
+            Files.write(Paths.get(journalPath), data,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error appending to journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] loadJournal() {
+        Path journal = Paths.get(journalPath);
+        if (!Files.exists(journal)) {
+            return new byte[0];
+        }
+        try {
+            return Files.readAllBytes(journal);
+        } catch (IOException e) {
+            System.err.println("Error loading journal: " + e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public void clearJournal() {
+        try {
+            Files.deleteIfExists(Paths.get(journalPath));
+        } catch (IOException e) {
+            System.err.println("Error clearing journal: " + e.getMessage());
+        }
+    }
 }
@@ -1,11 +1,27 @@
 package datasource;
 
+import java.nio.ByteBuffer;
+
 public interface GameStorage {
-    void save(String data);
+    void save(byte[] data);
 
-    String load();
+    byte[] load();
 
     boolean exists();
 
     void backup();
+
+    void appendJournal(byte[] data);
+
+    byte[] loadJournal();
+
+    void clearJournal();
+
+    default ByteBuffer loadView() {
+        return ByteBuffer.wrap(load());
+    }
+
+    default ByteBuffer loadJournalView() {
+        return ByteBuffer.wrap(loadJournal());
+    }
 }
@@ -0,0 +1,60 @@
+package datasource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+public class MappedFileGameStorage extends FileGameStorage {
+
+    public MappedFileGameStorage(String filePath) {
+        super(filePath);
+    }
+
+    @Override
+    public byte[] load() {
+        ByteBuffer view = loadView();
+        byte[] data = new byte[view.remaining()];
+        view.get(data);
+        return data;
+    }
+
+    @Override
+    public byte[] loadJournal() {
+        ByteBuffer view = loadJournalView();
+        byte[] data = new byte[view.remaining()];
+        view.get(data);
+        return data;
+    }
+
+    @Override
+    public ByteBuffer loadView() {
+        try {
+            return map(getFilePath());
+        } catch (IOException e) {
+            System.err.println("Error loading game: " + e.getMessage());
+            return ByteBuffer.allocate(0);
+        }
+    }
+
+    @Override
+    public ByteBuffer loadJournalView() {
+        Path journal = getJournalPath();
+        if (!Files.exists(journal)) {
+            return ByteBuffer.allocate(0);
+        }
+        try {
+            return map(journal);
+        } catch (IOException e) {
+            System.err.println("Error loading journal: " + e.getMessage());
+            return ByteBuffer.allocate(0);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package datasource;
+
+// Decides which backups a BackupStore keeps. Each backup is offered along with
+// how many newer backups exist from the same source; the newest backup of
+// every source is always kept.
+public interface RetentionPolicy {
+    boolean keep(BackupStore.Entry entry, int newerBackups, long nowMillis);
+
+    static RetentionPolicy keepAll() {
+        return (entry, newerBackups, nowMillis) -> true;
+    }
+
+    static RetentionPolicy keepLast(int count) {
+        return (entry, newerBackups, nowMillis) -> newerBackups < count;
+    }
+
+    static RetentionPolicy keepFor(long millis) {
+        return (entry, newerBackups, nowMillis) -> nowMillis - entry.getTimestamp() <= millis;
+    }
+
+    default RetentionPolicy and(RetentionPolicy other) {
+        return (entry, newerBackups, nowMillis) -> keep(entry, newerBackups, nowMillis)
+                && other.keep(entry, newerBackups, nowMillis);
+    }
+}
@@ -0,0 +1,180 @@
+package datasource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+// Hands writes to a background thread so callers (the Swing EDT in particular)
+// never wait on disk. Snapshots coalesce to the latest one, a journal clear
+// drops any appends queued before it, and reads flush first.
+public class WriteBehindGameStorage implements GameStorage, AutoCloseable {
+    private final GameStorage delegate;
+    private final Object lock = new Object();
+    private final Thread writer;
+
+    private byte[] pendingSnapshot;
+    private boolean pendingClear;
+    private final ByteArrayOutputStream pendingJournal = new ByteArrayOutputStream();
+    private boolean writing;
+    private boolean closed;
+
+    public WriteBehindGameStorage(GameStorage delegate) {
+        this.delegate = delegate;
+        this.writer = new Thread(this::runWriter, "game-save-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "game-save-flush"));
+    }
+
+    @Override
+    public void save(byte[] data) {
+        synchronized (lock) {
+            checkOpen();
+            pendingSnapshot = data;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void appendJournal(byte[] data) {
+        synchronized (lock) {
+            checkOpen();
+            pendingJournal.write(data, 0, data.length);
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void clearJournal() {
+        synchronized (lock) {
+            checkOpen();
+            pendingJournal.reset();
+            pendingClear = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public byte[] load() {
+        flush();
+        return delegate.load();
+    }
+
+    @Override
+    public byte[] loadJournal() {
+        flush();
+        return delegate.loadJournal();
+    }
+
+    @Override
+    public ByteBuffer loadView() {
+        flush();
+        return delegate.loadView();
+    }
+
+    @Override
+    public ByteBuffer loadJournalView() {
+        flush();
+        return delegate.loadJournalView();
+    }
+
+    @Override
+    public boolean exists() {
+        flush();
+        return delegate.exists();
+    }
+
+    @Override
+    public void backup() {
+        flush();
+        delegate.backup();
+    }
+
+    public void flush() {
+        synchronized (lock) {
+            while (hasPending() || writing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean hasPending() {
+        return pendingSnapshot != null || pendingClear || pendingJournal.size() > 0;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Storage is closed");
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            byte[] snapshot;
+            boolean clear;
+            byte[] journal;
+            synchronized (lock) {
+                while (!hasPending() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!hasPending()) {
+                    lock.notifyAll();
+                    return;
+                }
+                snapshot = pendingSnapshot;
+                clear = pendingClear;
+                journal = pendingJournal.size() > 0 ? pendingJournal.toByteArray() : null;
+                pendingSnapshot = null;
+                pendingClear = false;
+                pendingJournal.reset();
+                writing = true;
+            }
+
+            try {
+                if (snapshot != null) {
+                    delegate.save(snapshot);
+                }
+                if (clear) {
+                    delegate.clearJournal();
+                }
+                if (journal != null) {
+                    delegate.appendJournal(journal);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error writing game save: " + e.getMessage());
+            } finally {
+                synchronized (lock) {
+                    writing = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+}
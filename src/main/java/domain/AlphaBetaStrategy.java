@@ -0,0 +1,365 @@
+package domain;
+
+import java.util.SplittableRandom;
+
+// Iterative-deepening negamax with alpha-beta pruning over GameState. Scores
+// are the VP still to be gained (in hundredths) by the side to move minus the
+// opponent's, so a position's value does not depend on the VP already banked.
+// That keeps the Zobrist key down to cards, chip counts, pending turn chips and
+// side to move. The transposition table is a flat long[] of (key, data) pairs
+// that prefers deeper entries but always replaces ones from older searches.
+public class AlphaBetaStrategy implements PlayerStrategy {
+    private static final int INFINITY = 1_000_000;
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    private static final int VP_SCALE = 100;
+    private static final int DEFAULT_MAX_DEPTH = 64;
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 500;
+    private static final int DEFAULT_TABLE_BITS = 20;
+
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final long[][][] CHIP_KEYS = new long[2][COLORS.length][GameState.MAX_CHIPS + 1];
+    private static final long[] CARD_KEYS = new long[GameState.MAX_SLOTS];
+    private static final long[] TURN_KEYS = new long[1 << 8];
+    private static final long SIDE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_CAFEL);
+        for (long[][] player : CHIP_KEYS) {
+            for (long[] color : player) {
+                for (int count = 0; count < color.length; count++) {
+                    color[count] = random.nextLong();
+                }
+            }
+        }
+        for (int slot = 0; slot < CARD_KEYS.length; slot++) {
+            CARD_KEYS[slot] = random.nextLong();
+        }
+        for (int turn = 0; turn < TURN_KEYS.length; turn++) {
+            TURN_KEYS[turn] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+    private final long[] table;
+    private final int tableMask;
+    private int generation;
+
+    private Board deck;
+    private long deadline;
+    private boolean aborted;
+    private int[][] moveBuffers;
+    private long nodes;
+    private long probes;
+    private long hits;
+
+    private long lastNodes;
+    private double lastNodesPerSecond;
+    private double lastHitRate;
+    private int lastDepth;
+
+    public AlphaBetaStrategy() {
+        this(DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_MAX_DEPTH, DEFAULT_TABLE_BITS);
+    }
+
+    // The table holds 2^tableBits entries of two longs each.
+    public AlphaBetaStrategy(long timeBudgetMillis, int maxDepth, int tableBits) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = maxDepth;
+        this.table = new long[2 << tableBits];
+        this.tableMask = (1 << tableBits) - 1;
+    }
+
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    public double getLastNodesPerSecond() {
+        return lastNodesPerSecond;
+    }
+
+    public double getLastHitRate() {
+        return lastHitRate;
+    }
+
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    public String getLastStats() {
+        return String.format("depth=%d nodes=%d nps=%.0f ttHitRate=%.1f%%",
+                lastDepth, lastNodes, lastNodesPerSecond, lastHitRate * 100);
+    }
+
+    @Override
+    public PlayerMove chooseMove(GameViewState view) {
+        Board board = new Board(view.getCards());
+        int move = chooseMove(GameState.fromView(view, board), board);
+        return move < 0 ? null : PackedMove.toPlayerMove(move, board);
+    }
+
+    // Returns the chosen PackedMove, or -1 when there is no legal move.
+    int chooseMove(GameState root, Board board) {
+        deck = board;
+        moveBuffers = new int[maxDepth + 1][GameState.MAX_LEGAL_MOVES];
+
+        int[] rootMoves = new int[GameState.MAX_LEGAL_MOVES];
+        int rootCount = root.legalMoves(deck, rootMoves);
+        if (rootCount == 0) {
+            return -1;
+        }
+
+        long start = System.nanoTime();
+        deadline = start + timeBudgetMillis * 1_000_000;
+        aborted = false;
+        nodes = 0;
+        probes = 0;
+        hits = 0;
+        generation = (generation + 1) & 0x3;
+
+        long rootHash = hash(root);
+        int bestMove = rootMoves[0];
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = rootMoves[0];
+            for (int i = 0; i < rootCount; i++) {
+                GameState child = root.apply(deck, rootMoves[i]);
+                int score = scoreChild(root, rootHash, child, depth, alpha, INFINITY, 1);
+                if (aborted) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = rootMoves[i];
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            bestMove = iterationBest;
+            completedDepth = depth;
+            moveToFront(rootMoves, rootCount, bestMove);
+            if (alpha >= INFINITY / 2 || System.nanoTime() > deadline) {
+                break;
+            }
+        }
+
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        lastNodes = nodes;
+        lastNodesPerSecond = nodes * 1e9 / elapsed;
+        lastHitRate = probes == 0 ? 0 : (double) hits / probes;
+        lastDepth = completedDepth;
+        return bestMove;
+    }
+
+    // Value of child from the point of view of the player who moved into it.
+    // alpha and beta are in that player's terms too.
+    private int scoreChild(GameState parent, long parentHash, GameState child, int depth, int alpha, int beta,
+            int ply) {
+        int mover = parent.getCurrentPlayer();
+        int gain = (child.getVictoryPoints(mover) - parent.getVictoryPoints(mover)) * VP_SCALE;
+        if (child.isGameOver()) {
+            return gain;
+        }
+        long childHash = updateHash(parentHash, parent, child);
+        return gain - search(child, childHash, depth - 1, gain - beta, gain - alpha, ply);
+    }
+
+    private int search(GameState state, long hash, int depth, int alpha, int beta, int ply) {
+        nodes++;
+        if ((nodes & 0x3FF) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth <= 0 || ply >= maxDepth) {
+            return evaluate(state);
+        }
+
+        int originalAlpha = alpha;
+        int ttMove = -1;
+        int index = (int) (hash & tableMask) << 1;
+        probes++;
+        if (table[index] == hash && table[index + 1] != 0) {
+            hits++;
+            long data = table[index + 1];
+            ttMove = entryMove(data);
+            if (entryDepth(data) >= depth) {
+                int score = entryScore(data);
+                int flag = entryFlag(data);
+                if (flag == EXACT) {
+                    return score;
+                } else if (flag == LOWER_BOUND) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = state.legalMoves(deck, moves);
+        if (count == 0) {
+            return evaluate(state);
+        }
+        if (ttMove >= 0) {
+            moveToFront(moves, count, ttMove);
+        }
+
+        int best = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            GameState child = state.apply(deck, moves[i]);
+            int score = scoreChild(state, hash, child, depth, alpha, beta, ply + 1);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int flag = best <= originalAlpha ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+        store(index, hash, depth, flag, best, bestMove);
+        return best;
+    }
+
+    int evaluate(GameState state) {
+        int side = state.getCurrentPlayer();
+        return potential(state, side) - potential(state, side ^ 1);
+    }
+
+    // Rough worth of a player's chips: a little per chip plus a share of the
+    // best card they could buy right now.
+    private int potential(GameState state, int player) {
+        int chips = 0;
+        for (ChipColor color : COLORS) {
+            chips += state.getChips(player, color);
+        }
+        int bestAffordable = 0;
+        for (long remaining = state.getAvailableCards(); remaining != 0; remaining &= remaining - 1) {
+            Card card = deck.getCardInSlot(Long.numberOfTrailingZeros(remaining));
+            if (card.getVictoryPoints() > bestAffordable && canAfford(state, player, card)) {
+                bestAffordable = card.getVictoryPoints();
+            }
+        }
+        return chips * VP_SCALE / 10 + bestAffordable * VP_SCALE / 2;
+    }
+
+    private boolean canAfford(GameState state, int player, Card card) {
+        for (ChipColor color : COLORS) {
+            if (state.getChips(player, color) < card.getCost(color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void store(int index, long hash, int depth, int flag, int score, int move) {
+        long existing = table[index + 1];
+        if (existing != 0 && table[index] != hash && entryGeneration(existing) == generation
+                && entryDepth(existing) > depth) {
+            return;
+        }
+        table[index] = hash;
+        table[index + 1] = (score & 0xFFFFFFFFL)
+                | (long) (depth & 0xFF) << 32
+                | (long) flag << 40
+                | (long) (move & 0xFFFFF) << 42
+                | (long) generation << 62;
+    }
+
+    private static int entryScore(long data) {
+        return (int) data;
+    }
+
+    private static int entryDepth(long data) {
+        return (int) (data >>> 32 & 0xFF);
+    }
+
+    private static int entryFlag(long data) {
+        return (int) (data >>> 40 & 0x3);
+    }
+
+    private static int entryMove(long data) {
+        return (int) (data >>> 42 & 0xFFFFF);
+    }
+
+    private static int entryGeneration(long data) {
+        return (int) (data >>> 62 & 0x3);
+    }
+
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    private static int turnIndex(GameState state) {
+        int count = state.getTurnChipCount();
+        int index = count;
+        for (int i = 0; i < count; i++) {
+            index |= state.getTurnChip(i).ordinal() << (2 + 3 * i);
+        }
+        return index;
+    }
+
+    static long hash(GameState state) {
+        long hash = 0;
+        for (long remaining = state.getAvailableCards(); remaining != 0; remaining &= remaining - 1) {
+            hash ^= CARD_KEYS[Long.numberOfTrailingZeros(remaining)];
+        }
+        for (int player = 0; player < 2; player++) {
+            for (ChipColor color : COLORS) {
+                hash ^= CHIP_KEYS[player][color.ordinal()][state.getChips(player, color)];
+            }
+        }
+        hash ^= TURN_KEYS[turnIndex(state)];
+        if (state.getCurrentPlayer() == 1) {
+            hash ^= SIDE_KEY;
+        }
+        return hash;
+    }
+
+    // Only the mover's chips, the bought card, the turn chips and the side to
+    // move can change between a position and its child.
+    private static long updateHash(long hash, GameState parent, GameState child) {
+        for (long changed = parent.getAvailableCards() ^ child.getAvailableCards(); changed != 0;
+                changed &= changed - 1) {
+            hash ^= CARD_KEYS[Long.numberOfTrailingZeros(changed)];
+        }
+        int mover = parent.getCurrentPlayer();
+        for (ChipColor color : COLORS) {
+            int before = parent.getChips(mover, color);
+            int after = child.getChips(mover, color);
+            if (before != after) {
+                hash ^= CHIP_KEYS[mover][color.ordinal()][before] ^ CHIP_KEYS[mover][color.ordinal()][after];
+            }
+        }
+        hash ^= TURN_KEYS[turnIndex(parent)] ^ TURN_KEYS[turnIndex(child)];
+        if (parent.getCurrentPlayer() != child.getCurrentPlayer()) {
+            hash ^= SIDE_KEY;
+        }
+        return hash;
+    }
+}
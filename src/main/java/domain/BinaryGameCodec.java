@@ -0,0 +1,312 @@
+package domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Layout: magic "CCGS", version byte, then varint-coded fields. Colors and move
+// types are stored by ordinal; a chip move fits in one or two bytes and a card
+// purchase in one byte plus a varint card id.
+public class BinaryGameCodec implements GameCodec {
+    private static final byte[] MAGIC = { 'C', 'C', 'G', 'S' };
+    // Move type bits that no move uses.
+    private static final int JOURNAL_HEADER = 0x3;
+    private static final int VERSION = 1;
+
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final MoveType[] MOVE_TYPES = MoveType.values();
+
+    @Override
+    public boolean canDecode(ByteBuffer data) {
+        if (data.remaining() < MAGIC.length + 1) {
+            return false;
+        }
+        int start = data.position();
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.get(start + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public byte[] encodeGame(Game game) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + game.getMoveCount() * 2);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+
+        writeVarInt(out, game.getCurrentPlayerIndex());
+
+        List<Player> players = game.getPlayers();
+        writeVarInt(out, players.size());
+        for (Player player : players) {
+            byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, name.length);
+            out.write(name, 0, name.length);
+            writeVarInt(out, player.getVictoryPoints());
+            for (ChipColor color : COLORS) {
+                writeVarInt(out, player.getChipCount(color));
+            }
+        }
+
+        List<Card> cards = game.getBoard().getCards();
+        writeVarInt(out, cards.size());
+        for (Card card : cards) {
+            writeVarInt(out, card.getId());
+            writeVarInt(out, card.getVictoryPoints());
+            for (ChipColor color : COLORS) {
+                writeVarInt(out, card.getCost(color));
+            }
+        }
+
+        List<ChipColor> turnChips = game.getCurrentTurnChips();
+        writeVarInt(out, turnChips.size());
+        for (ChipColor color : turnChips) {
+            out.write(color.ordinal());
+        }
+
+        int moveCount = game.getMoveCount();
+        writeVarInt(out, moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            writeMove(out, game.getMove(i));
+        }
+
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] encodeMoves(Game game, int fromIndex, int toIndex) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((toIndex - fromIndex) * 2);
+        for (int i = fromIndex; i < toIndex; i++) {
+            writeMove(out, game.getMove(i));
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void decodeGame(ByteBuffer data, Game game) {
+        ByteBuffer in = data.duplicate();
+        if (!canDecode(in)) {
+            throw new IllegalArgumentException("Not a binary game save");
+        }
+        in.position(in.position() + MAGIC.length);
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save version: " + version);
+        }
+
+        int currentPlayerIndex = readVarInt(in);
+
+        int playerCount = readVarInt(in);
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < playerCount; i++) {
+            int nameLength = readVarInt(in);
+            in.position(in.position() + nameLength);
+
+            Player player = players.get(i);
+            player.reset();
+            player.addVictoryPoints(readVarInt(in));
+            for (ChipColor color : COLORS) {
+                int count = readVarInt(in);
+                if (count != 0) {
+                    player.takeChip(color, count);
+                }
+            }
+        }
+
+        int cardCount = readVarInt(in);
+        List<Card> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            int id = readVarInt(in);
+            int vp = readVarInt(in);
+            int[] cost = new int[COLORS.length];
+            for (int c = 0; c < cost.length; c++) {
+                cost[c] = readVarInt(in);
+            }
+            cards.add(new Card(id, cost, vp));
+        }
+
+        int turnChipCount = readVarInt(in);
+        List<ChipColor> turnChips = new ArrayList<>(turnChipCount);
+        for (int i = 0; i < turnChipCount; i++) {
+            turnChips.add(COLORS[in.get()]);
+        }
+
+        int moveCount = readVarInt(in);
+        for (int i = 0; i < moveCount; i++) {
+            game.addMove(readMove(in));
+        }
+
+        game.setState(new Board(cards), currentPlayerIndex, turnChips);
+    }
+
+    @Override
+    public byte[] encodeJournalHeader(int firstMoveIndex) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(6);
+        out.write(JOURNAL_HEADER);
+        writeVarInt(out, firstMoveIndex);
+        return out.toByteArray();
+    }
+
+    @Override
+    public int readJournalStart(ByteBuffer data) {
+        if (!data.hasRemaining() || data.get(data.position()) != JOURNAL_HEADER) {
+            return -1;
+        }
+        ByteBuffer in = data.duplicate();
+        in.get();
+        return readVarInt(in);
+    }
+
+    private static ByteBuffer skipJournalHeader(ByteBuffer data) {
+        ByteBuffer in = data.duplicate();
+        if (in.hasRemaining() && in.get(in.position()) == JOURNAL_HEADER) {
+            in.get();
+            readVarInt(in);
+        }
+        return in;
+    }
+
+    @Override
+    public List<PlayerMove> decodeMoves(ByteBuffer data) {
+        ByteBuffer in = skipJournalHeader(data);
+        List<PlayerMove> moves = new ArrayList<>();
+        while (in.hasRemaining()) {
+            moves.add(readMove(in));
+        }
+        return moves;
+    }
+
+    @Override
+    public MoveReader readSnapshotMoves(ByteBuffer data) {
+        ByteBuffer in = data.duplicate();
+        if (!canDecode(in)) {
+            throw new IllegalArgumentException("Not a binary game save");
+        }
+        in.position(in.position() + MAGIC.length);
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save version: " + version);
+        }
+
+        readVarInt(in);
+        int playerCount = readVarInt(in);
+        for (int i = 0; i < playerCount; i++) {
+            int nameLength = readVarInt(in);
+            in.position(in.position() + nameLength);
+            skipVarInts(in, 1 + COLORS.length);
+        }
+        int cardCount = readVarInt(in);
+        for (int i = 0; i < cardCount; i++) {
+            skipVarInts(in, 2 + COLORS.length);
+        }
+        int turnChipCount = readVarInt(in);
+        in.position(in.position() + turnChipCount);
+        readVarInt(in);
+        return new Reader(in);
+    }
+
+    @Override
+    public MoveReader readJournalMoves(ByteBuffer data) {
+        return new Reader(skipJournalHeader(data));
+    }
+
+    private static void skipVarInts(ByteBuffer in, int count) {
+        for (int i = 0; i < count; i++) {
+            readVarInt(in);
+        }
+    }
+
+    // Moves are the last thing in a snapshot, so both kinds of reader simply
+    // run to the end of the buffer.
+    private class Reader implements MoveReader {
+        private final ByteBuffer in;
+
+        Reader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return in.hasRemaining();
+        }
+
+        @Override
+        public PlayerMove next() {
+            return readMove(in);
+        }
+
+        @Override
+        public int getPosition() {
+            return in.position();
+        }
+
+        @Override
+        public void setPosition(int position) {
+            in.position(position);
+        }
+    }
+
+    private void writeMove(ByteArrayOutputStream out, PlayerMove move) {
+        int type = move.getType().ordinal();
+        List<ChipColor> colors = move.getColors();
+        switch (move.getType()) {
+            case BUY_CARD:
+                out.write(type);
+                writeVarInt(out, move.getCardId());
+                break;
+            case TAKE_TWO_SAME:
+                out.write(type | colors.get(0).ordinal() << 2);
+                break;
+            case TAKE_THREE_DIFF:
+                out.write(type | colors.get(0).ordinal() << 2 | colors.get(1).ordinal() << 5);
+                out.write(colors.get(2).ordinal());
+                break;
+        }
+    }
+
+    private PlayerMove readMove(ByteBuffer in) {
+        int header = in.get() & 0xFF;
+        MoveType type = MOVE_TYPES[header & 0x3];
+        List<ChipColor> colors = new ArrayList<>(3);
+        switch (type) {
+            case BUY_CARD:
+                return new PlayerMove(type, readVarInt(in), colors);
+            case TAKE_TWO_SAME:
+                colors.add(COLORS[header >>> 2 & 0x7]);
+                return new PlayerMove(type, -1, colors);
+            default:
+                colors.add(COLORS[header >>> 2 & 0x7]);
+                colors.add(COLORS[header >>> 5 & 0x7]);
+                colors.add(COLORS[in.get()]);
+                return new PlayerMove(type, -1, colors);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+        }
+    }
+}
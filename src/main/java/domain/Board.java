@@ -2,22 +2,30 @@ package domain;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Collections;
 
+// Cards keep the slot they were dealt into for the life of the board. Lookups
+// go through an id -> slot table and availability is a bit per slot, so
+// finding, removing and putting back a card never scans or shifts anything.
 public class Board {
-    private final List<Card> availableCards;
+    private Card[] slots;
+    private int[] slotKeys;
+    private int[] slotValues;
+    private final BitSet available = new BitSet();
+    private int availableCount;
+    private List<Card> availableView;
 
     public Board(List<Card> cards) {
-        this.availableCards = new ArrayList<>(cards);
+        setDeck(cards);
     }
 
     public Board() {
-        this.availableCards = new ArrayList<>();
-        initializeDefaultCards();
+        setDeck(createDefaultCards());
     }
 
-    private void initializeDefaultCards() {
+    private List<Card> createDefaultCards() {
+        List<Card> availableCards = new ArrayList<>();
         availableCards.add(createCard(1, 3, 0, 0, 0, 0, 1));
         availableCards.add(createCard(2, 0, 3, 0, 0, 0, 1));
         availableCards.add(createCard(3, 0, 0, 3, 0, 0, 1));
@@ -36,47 +44,124 @@ public class Board {
 
         availableCards.add(createCard(14, 3, 2, 1, 0, 0, 4));
         availableCards.add(createCard(15, 3, 3, 3, 0, 0, 5));
+        return availableCards;
     }
 
     private Card createCard(int id, int r, int b, int g, int bl, int w, int vp) {
-        Map<ChipColor, Integer> cost = new HashMap<>();
-        if (r > 0)
-            cost.put(ChipColor.RED, r);
-        if (b > 0)
-            cost.put(ChipColor.BLUE, b);
-        if (g > 0)
-            cost.put(ChipColor.GREEN, g);
-        if (bl > 0)
-            cost.put(ChipColor.BLACK, bl);
-        if (w > 0)
-            cost.put(ChipColor.WHITE, w);
+        int[] cost = new int[ChipColor.values().length];
+        cost[ChipColor.RED.ordinal()] = r;
+        cost[ChipColor.BLUE.ordinal()] = b;
+        cost[ChipColor.GREEN.ordinal()] = g;
+        cost[ChipColor.BLACK.ordinal()] = bl;
+        cost[ChipColor.WHITE.ordinal()] = w;
         return new Card(id, cost, vp);
     }
 
+    private void setDeck(List<Card> cards) {
+        slots = cards.toArray(new Card[0]);
+
+        int capacity = Integer.highestOneBit(Math.max(2, slots.length * 2 - 1)) << 1;
+        slotKeys = new int[capacity];
+        slotValues = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slotValues[i] = -1;
+        }
+        for (int slot = 0; slot < slots.length; slot++) {
+            int bucket = bucketFor(slots[slot].getId());
+            if (slotValues[bucket] < 0) {
+                slotKeys[bucket] = slots[slot].getId();
+                slotValues[bucket] = slot;
+            }
+        }
+
+        available.clear();
+        available.set(0, slots.length);
+        availableCount = slots.length;
+        availableView = null;
+    }
+
+    private int bucketFor(int cardId) {
+        int mask = slotKeys.length - 1;
+        int hash = cardId * 0x9E3779B9;
+        int bucket = (hash ^ hash >>> 16) & mask;
+        while (slotValues[bucket] >= 0 && slotKeys[bucket] != cardId) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
     public List<Card> getCards() {
-        return availableCards;
+        if (availableView == null) {
+            List<Card> cards = new ArrayList<>(availableCount);
+            for (int slot = available.nextSetBit(0); slot >= 0; slot = available.nextSetBit(slot + 1)) {
+                cards.add(slots[slot]);
+            }
+            availableView = Collections.unmodifiableList(cards);
+        }
+        return availableView;
+    }
+
+    public int size() {
+        return availableCount;
+    }
+
+    public boolean isEmpty() {
+        return availableCount == 0;
+    }
+
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    public Card getCardInSlot(int slot) {
+        return slots[slot];
+    }
+
+    public boolean isAvailable(int slot) {
+        return available.get(slot);
+    }
+
+    // Returns the first available slot at or after fromSlot, or -1.
+    public int nextAvailableSlot(int fromSlot) {
+        return available.nextSetBit(fromSlot);
+    }
+
+    public int slotOf(int cardId) {
+        return slotValues[bucketFor(cardId)];
     }
 
     public Card getCard(int cardId) throws IllegalMoveException {
-        for (int i = 0; i < availableCards.size(); i++) {
-            if (availableCards.get(i).getId() == cardId) {
-                return availableCards.get(i);
-            }
+        int slot = slotOf(cardId);
+        if (slot < 0 || !available.get(slot)) {
+            throw new IllegalMoveException("Card not found on board");
         }
-        throw new IllegalMoveException("Card not found on board");
+        return slots[slot];
     }
 
     public Card removeCard(int cardId) throws IllegalMoveException {
-        for (int i = 0; i < availableCards.size(); i++) {
-            if (availableCards.get(i).getId() == cardId) {
-                return availableCards.remove(i);
-            }
+        Card card = getCard(cardId);
+        removeSlot(slotOf(cardId));
+        return card;
+    }
+
+    public Card removeSlot(int slot) {
+        if (available.get(slot)) {
+            available.clear(slot);
+            availableCount--;
+            availableView = null;
+        }
+        return slots[slot];
+    }
+
+    public void restoreSlot(int slot) {
+        if (!available.get(slot)) {
+            available.set(slot);
+            availableCount++;
+            availableView = null;
         }
-        throw new IllegalMoveException("Card not found on board");
     }
 
     public void reset() {
-        availableCards.clear();
-        initializeDefaultCards();
+        setDeck(createDefaultCards());
     }
 }
@@ -1,16 +1,27 @@
 package domain;
 
 import java.util.Map;
-import java.util.HashMap;
+import java.util.EnumMap;
 
 public class Card {
+    private static final ChipColor[] COLORS = ChipColor.values();
+
     private final int id;
-    private final Map<ChipColor, Integer> cost;
+    private final int[] cost;
     private final int victoryPoints;
     
     public Card(int id, Map<ChipColor, Integer> cost, int victoryPoints) {
         this.id = id;
-        this.cost = new HashMap<>(cost);
+        this.cost = new int[COLORS.length];
+        for (Map.Entry<ChipColor, Integer> entry : cost.entrySet()) {
+            this.cost[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.victoryPoints = victoryPoints;
+    }
+
+    public Card(int id, int[] cost, int victoryPoints) {
+        this.id = id;
+        this.cost = cost.clone();
         this.victoryPoints = victoryPoints;
     }
     
@@ -19,7 +30,21 @@ public class Card {
     }
     
     public Map<ChipColor, Integer> getCost() {
-        return new HashMap<>(cost);
+        Map<ChipColor, Integer> view = new EnumMap<>(ChipColor.class);
+        for (ChipColor color : COLORS) {
+            if (cost[color.ordinal()] > 0) {
+                view.put(color, cost[color.ordinal()]);
+            }
+        }
+        return view;
+    }
+
+    public int getCost(ChipColor color) {
+        return cost[color.ordinal()];
+    }
+
+    int getCost(int colorIndex) {
+        return cost[colorIndex];
     }
     
     public int getVictoryPoints() {
@@ -28,8 +53,8 @@ public class Card {
     
     public String getCostString() {
         StringBuilder sb = new StringBuilder();
-        for (ChipColor color : ChipColor.values()) {
-            int count = cost.getOrDefault(color, 0);
+        for (ChipColor color : COLORS) {
+            int count = cost[color.ordinal()];
             if (count > 0) {
                 sb.append(color.toString()).append(count);
             }
@@ -2,8 +2,15 @@ package domain;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Collections;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Game {
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final int CHIP_MOVES = 15;
+
     private Board board;
     private final List<Player> players;
     private int currentPlayerIndex;
@@ -12,6 +19,23 @@ public class Game {
     private final List<ChipColor> currentTurnChips;
     private String lastError;
     private boolean gameOver = false;
+    private final Deque<MoveDelta> undoHistory = new ArrayDeque<>();
+    private final Deque<MoveDelta> redoHistory = new ArrayDeque<>();
+    private MoveEventRing events;
+    // Events staged under the lock and published once it is released, so a
+    // full ring never stalls a thread that holds the lock. The slots are
+    // reused, and publishing swaps the two lists under publishLock so events
+    // reach the ring in the order they were staged.
+    private List<MoveEvent> stagedEvents = new ArrayList<>();
+    private List<MoveEvent> publishingEvents = new ArrayList<>();
+    private int stagedCount;
+    private final Object publishLock = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long version;
+    private boolean dirty;
+    // Published by every change; null only while publishing is off.
+    private volatile GameViewState view;
+    private boolean publishViews = true;
 
     public Game(Board board, List<Player> players, GameSaver saver) {
         this.board = board;
@@ -21,61 +45,221 @@ public class Game {
         this.saver = saver;
         this.currentTurnChips = new ArrayList<>();
         this.lastError = null;
+        this.view = buildViewState();
     }
 
-    public List<PlayerMove> getMoves() {
-        return new ArrayList<>(moves);
+    private interface Change<E extends Exception> {
+        boolean apply() throws E;
     }
 
-    public void buyCard(int cardId) throws IllegalMoveException {
-        if (gameOver) {
-            throw new IllegalMoveException("Game is over. No more moves allowed.");
+    // Every change runs here under the write lock. A change that reports true,
+    // or that throws because it ended the game, bumps the version and
+    // publishes a fresh view for lock-free readers. Nested changes publish
+    // once, when the outermost one finishes. Saves queued by the change are
+    // written after the lock is released.
+    private <E extends Exception> boolean write(Change<E> change) throws E {
+        lock.lock();
+        boolean outermost = lock.getHoldCount() == 1;
+        boolean wasOver = gameOver;
+        try {
+            boolean changed = change.apply();
+            dirty |= changed;
+            return changed;
+        } catch (Exception e) {
+            // A move rejected because the game is already over changes nothing.
+            dirty |= gameOver && !wasOver;
+            throw e;
+        } finally {
+            if (dirty && outermost) {
+                dirty = false;
+                version++;
+                view = publishViews ? buildViewState() : null;
+            }
+            boolean publish = outermost && stagedCount > 0;
+            lock.unlock();
+            if (publish) {
+                publishEvents();
+            }
+            if (outermost && saver != null) {
+                saver.flush();
+            }
         }
-        if (!currentTurnChips.isEmpty()) {
-            throw new IllegalMoveException("Cannot buy card after taking chips this turn");
+    }
+
+    // Runs several steps, such as decoding a save, as one change.
+    void update(Runnable steps) {
+        write(() -> {
+            steps.run();
+            return true;
+        });
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Applies the move only if nothing has changed since expectedVersion, so
+    // a client acting on a stale view re-reads instead of moving blindly.
+    // Returns false when the version has moved on.
+    public boolean submit(long expectedVersion, PlayerMove move) throws IllegalMoveException {
+        return write(() -> {
+            if (version != expectedVersion) {
+                return false;
+            }
+            applyMove(move);
+            return true;
+        });
+    }
+
+    // Moves, undos and position resets are published to the ring from then
+    // on. The ring must only ever be fed by this game.
+    public void setEventRing(MoveEventRing events) {
+        this.events = events;
+    }
+
+    private void publishReset(MoveEvent.Kind kind) {
+        if (events != null) {
+            stageEvent().setReset(kind, captureSnapshot(), getMoves());
         }
+    }
 
-        Player currentPlayer = players.get(currentPlayerIndex);
-        Card card = board.getCard(cardId);
+    private MoveEvent stageEvent() {
+        if (stagedCount == stagedEvents.size()) {
+            stagedEvents.add(new MoveEvent());
+        }
+        return stagedEvents.get(stagedCount++);
+    }
+
+    private void publishEvents() {
+        synchronized (publishLock) {
+            List<MoveEvent> batch;
+            int count;
+            lock.lock();
+            try {
+                batch = stagedEvents;
+                count = stagedCount;
+                stagedEvents = publishingEvents;
+                publishingEvents = batch;
+                stagedCount = 0;
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                events.publish(batch.get(i));
+            }
+        }
+    }
+
+    public List<PlayerMove> getMoves() {
+        lock.lock();
+        try {
+            return new ArrayList<>(moves);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMoveCount() {
+        lock.lock();
+        try {
+            return moves.size();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        if (!currentPlayer.canAfford(card)) {
-            throw new IllegalMoveException("Not enough chips to buy this card");
+    public PlayerMove getMove(int index) {
+        lock.lock();
+        try {
+            return moves.get(index);
+        } finally {
+            lock.unlock();
         }
+    }
+
+    public void applyMove(PlayerMove move) throws IllegalMoveException {
+        switch (move.getType()) {
+            case BUY_CARD:
+                buyCard(move.getCardId());
+                break;
+            case TAKE_TWO_SAME:
+                takeTwo(move.getColors().get(0));
+                break;
+            case TAKE_THREE_DIFF:
+                List<ChipColor> colors = move.getColors();
+                takeThree(colors.get(0), colors.get(1), colors.get(2));
+                break;
+        }
+    }
+
+    public void buyCard(int cardId) throws IllegalMoveException {
+        write(() -> {
+            if (gameOver) {
+                throw new IllegalMoveException("Game is over. No more moves allowed.");
+            }
+            if (!currentTurnChips.isEmpty()) {
+                throw new IllegalMoveException("Cannot buy card after taking chips this turn");
+            }
+
+            Player currentPlayer = players.get(currentPlayerIndex);
+            Card card = board.getCard(cardId);
+
+            if (!currentPlayer.canAfford(card)) {
+                throw new IllegalMoveException("Not enough chips to buy this card");
+            }
+
+            purchase(board.slotOf(cardId));
 
-        card = board.removeCard(cardId);
+            if (gameOver) {
+                throw new IllegalMoveException(lastError);
+            }
+
+            lastError = null;
+            return true;
+        });
+    }
+
+    private void purchase(int slot) {
+        Player currentPlayer = players.get(currentPlayerIndex);
+        Card card = board.removeSlot(slot);
 
-        currentPlayer.payCost(card.getCost());
+        currentPlayer.payCost(card);
         currentPlayer.addVictoryPoints(card.getVictoryPoints());
 
-        moves.add(new PlayerMove(MoveType.BUY_CARD, cardId, new ArrayList<>()));
+        PlayerMove move = new PlayerMove(MoveType.BUY_CARD, card.getId(), new ArrayList<>());
+        recordMove(move, MoveDelta.purchase(move, currentPlayerIndex, card, slot));
 
         checkEndGame();
 
-        if (!board.getCards().isEmpty()) {
+        if (!board.isEmpty()) {
             nextPlayer();
         }
         save();
-
-        if (gameOver) {
-            throw new IllegalMoveException(lastError);
-        }
-
-        lastError = null;
     }
 
     public void takeTwo(ChipColor color) throws IllegalMoveException {
-        if (currentTurnChips.size() > 0) {
-            throw new IllegalMoveException("Already took chips this turn");
-        }
+        write(() -> {
+            if (currentTurnChips.size() > 0) {
+                throw new IllegalMoveException("Already took chips this turn");
+            }
+            checkChipRoom(color, 2);
+            finishTakeTwo(color);
+            return true;
+        });
+    }
 
+    // Also completes a take-two started with takeChipIncremental.
+    private void finishTakeTwo(ChipColor color) {
         Player currentPlayer = players.get(currentPlayerIndex);
-        currentPlayer.takeChip(color, 2);
-        currentTurnChips.add(color);
-        currentTurnChips.add(color);
+        currentPlayer.takeChip(color, 2 - currentTurnChips.size());
+        while (currentTurnChips.size() < 2) {
+            currentTurnChips.add(color);
+        }
 
         List<ChipColor> moveColors = new ArrayList<>();
         moveColors.add(color);
-        moves.add(new PlayerMove(MoveType.TAKE_TWO_SAME, -1, moveColors));
+        PlayerMove move = new PlayerMove(MoveType.TAKE_TWO_SAME, -1, moveColors);
+        recordMove(move, MoveDelta.chips(move, currentPlayerIndex, currentTurnChips));
 
         nextPlayer();
         save();
@@ -83,76 +267,321 @@ public class Game {
     }
 
     public void takeThree(ChipColor c1, ChipColor c2, ChipColor c3) throws IllegalMoveException {
-        if (c1 == c2 || c2 == c3 || c1 == c3) {
-            throw new IllegalMoveException("All three colors must be different");
-        }
+        write(() -> {
+            if (c1 == c2 || c2 == c3 || c1 == c3) {
+                throw new IllegalMoveException("All three colors must be different");
+            }
 
-        if (currentTurnChips.size() > 0) {
-            throw new IllegalMoveException("Already took chips this turn");
-        }
+            if (currentTurnChips.size() > 0) {
+                throw new IllegalMoveException("Already took chips this turn");
+            }
+            checkChipRoom(c1, 1);
+            checkChipRoom(c2, 1);
+            checkChipRoom(c3, 1);
+            finishTakeThree(c1, c2, c3);
+            return true;
+        });
+    }
 
-        Player currentPlayer = players.get(currentPlayerIndex);
-        currentPlayer.takeChip(c1, 1);
-        currentPlayer.takeChip(c2, 1);
-        currentPlayer.takeChip(c3, 1);
+    // Colors already taken this turn with takeChipIncremental are not taken
+    // again.
+    private void finishTakeThree(ChipColor c1, ChipColor c2, ChipColor c3) {
+        takeChipOnce(c1);
+        takeChipOnce(c2);
+        takeChipOnce(c3);
 
         List<ChipColor> moveColors = new ArrayList<>();
         moveColors.add(c1);
         moveColors.add(c2);
         moveColors.add(c3);
-        moves.add(new PlayerMove(MoveType.TAKE_THREE_DIFF, -1, moveColors));
+        PlayerMove move = new PlayerMove(MoveType.TAKE_THREE_DIFF, -1, moveColors);
+        recordMove(move, MoveDelta.chips(move, currentPlayerIndex, moveColors));
 
         nextPlayer();
         save();
         lastError = null;
     }
 
-    public void takeChipIncremental(ChipColor color) throws IllegalMoveException {
-        checkEndGame();
-        if (gameOver) {
-            throw new IllegalMoveException("Game is over. No more moves allowed.");
+    // Chip counts are capped so every position fits in a GameState.
+    private void checkChipRoom(ChipColor color, int count) throws IllegalMoveException {
+        if (!hasChipRoom(players.get(currentPlayerIndex), color.ordinal(), count)) {
+            throw new IllegalMoveException("Cannot hold more than " + GameState.MAX_CHIPS + " " + color + " chips");
         }
-        if (currentTurnChips.isEmpty()) {
-            Player currentPlayer = players.get(currentPlayerIndex);
-            currentPlayer.takeChip(color, 1);
-            currentTurnChips.add(color);
-            lastError = null;
-        } else if (currentTurnChips.size() == 1) {
+    }
+
+    private static boolean hasChipRoom(Player player, int color, int count) {
+        return player.getChipCount(COLORS[color]) + count <= GameState.MAX_CHIPS;
+    }
+
+    private void takeChipOnce(ChipColor color) {
+        if (!currentTurnChips.contains(color)) {
+            players.get(currentPlayerIndex).takeChip(color, 1);
+        }
+    }
+
+    public int getMaxLegalMoves() {
+        return board.size() + CHIP_MOVES;
+    }
+
+    // Writes the legal moves for the side to move into buffer as PackedMove
+    // ints (buys by board slot, then take-two, then take-three) and returns
+    // how many there are. Nothing is allocated, so one buffer can be reused
+    // across a whole search. After takeChipIncremental only the moves that
+    // complete the started turn are listed.
+    public int legalMoves(int[] buffer) {
+        lock.lock();
+        try {
+            if (gameOver) {
+                return 0;
+            }
+            if (buffer.length < getMaxLegalMoves()) {
+                throw new IllegalArgumentException("Move buffer needs room for " + getMaxLegalMoves() + " moves");
+            }
+
+            int turnCount = currentTurnChips.size();
+            int count = 0;
             Player currentPlayer = players.get(currentPlayerIndex);
+            if (turnCount == 0) {
+                for (int slot = board.nextAvailableSlot(0); slot >= 0; slot = board.nextAvailableSlot(slot + 1)) {
+                    if (currentPlayer.canAfford(board.getCardInSlot(slot))) {
+                        buffer[count++] = PackedMove.buy(slot);
+                    }
+                }
+            }
+
+            int taken = 0;
+            for (int i = 0; i < turnCount; i++) {
+                taken |= 1 << currentTurnChips.get(i).ordinal();
+            }
+            if (turnCount < 2) {
+                for (int c = 0; c < COLORS.length; c++) {
+                    if (turnCount == 0 ? hasChipRoom(currentPlayer, c, 2)
+                            : taken == 1 << c && hasChipRoom(currentPlayer, c, 1)) {
+                        buffer[count++] = PackedMove.takeTwo(COLORS[c]);
+                    }
+                }
+            }
+            for (int c1 = 0; c1 < COLORS.length; c1++) {
+                for (int c2 = c1 + 1; c2 < COLORS.length; c2++) {
+                    for (int c3 = c2 + 1; c3 < COLORS.length; c3++) {
+                        int colors = 1 << c1 | 1 << c2 | 1 << c3;
+                        if ((taken & ~colors) == 0 && hasThreeRoom(currentPlayer, colors & ~taken)) {
+                            buffer[count++] = PackedMove.takeThree(c1, c2, c3);
+                        }
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean hasThreeRoom(Player player, int colors) {
+        for (int c = 0; c < COLORS.length; c++) {
+            if ((colors & 1 << c) != 0 && !hasChipRoom(player, c, 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Applies a move produced by legalMoves for the current position. Nothing
+    // is validated and the end of the game is not reported with an exception;
+    // passing any other move leaves the game in an undefined state.
+    public void applyUnchecked(int move) {
+        write(() -> {
+            switch (PackedMove.getType(move)) {
+                case BUY_CARD:
+                    purchase(PackedMove.getSlot(move));
+                    if (!gameOver) {
+                        lastError = null;
+                    }
+                    break;
+                case TAKE_TWO_SAME:
+                    finishTakeTwo(PackedMove.getColor(move, 0));
+                    break;
+                default:
+                    finishTakeThree(PackedMove.getColor(move, 0), PackedMove.getColor(move, 1),
+                            PackedMove.getColor(move, 2));
+                    break;
+            }
+            return true;
+        });
+    }
 
-            if (currentTurnChips.get(0) == color) {
+    public void takeChipIncremental(ChipColor color) throws IllegalMoveException {
+        write(() -> {
+            checkEndGame();
+            if (gameOver) {
+                throw new IllegalMoveException("Game is over. No more moves allowed.");
+            }
+            if (currentTurnChips.isEmpty()) {
+                checkChipRoom(color, 1);
+                Player currentPlayer = players.get(currentPlayerIndex);
                 currentPlayer.takeChip(color, 1);
                 currentTurnChips.add(color);
+                lastError = null;
+            } else if (currentTurnChips.size() == 1) {
+                checkChipRoom(color, 1);
+                Player currentPlayer = players.get(currentPlayerIndex);
+
+                if (currentTurnChips.get(0) == color) {
+                    currentPlayer.takeChip(color, 1);
+                    currentTurnChips.add(color);
+
+                    List<ChipColor> moveColors = new ArrayList<>();
+                    moveColors.add(color);
+                    PlayerMove move = new PlayerMove(MoveType.TAKE_TWO_SAME, -1, moveColors);
+                    recordMove(move, MoveDelta.chips(move, currentPlayerIndex, currentTurnChips));
+                    nextPlayer();
+                    save();
+                    lastError = null;
+                } else {
+                    currentPlayer.takeChip(color, 1);
+                    currentTurnChips.add(color);
+                    lastError = null;
+                }
+            } else if (currentTurnChips.size() == 2) {
+                if (currentTurnChips.contains(color)) {
+                    throw new IllegalMoveException("Third chip must be a different color than the first two");
+                }
+                checkChipRoom(color, 1);
+
+                Player currentPlayer = players.get(currentPlayerIndex);
+                currentPlayer.takeChip(color, 1);
 
                 List<ChipColor> moveColors = new ArrayList<>();
+                moveColors.add(currentTurnChips.get(0));
+                moveColors.add(currentTurnChips.get(1));
                 moveColors.add(color);
-                moves.add(new PlayerMove(MoveType.TAKE_TWO_SAME, -1, moveColors));
+                PlayerMove move = new PlayerMove(MoveType.TAKE_THREE_DIFF, -1, moveColors);
+                recordMove(move, MoveDelta.chips(move, currentPlayerIndex, moveColors));
+
                 nextPlayer();
                 save();
                 lastError = null;
-            } else {
-                currentPlayer.takeChip(color, 1);
-                currentTurnChips.add(color);
+            }
+            return true;
+        });
+    }
+
+    private void recordMove(PlayerMove move, MoveDelta delta) {
+        moves.add(move);
+        undoHistory.push(delta);
+        redoHistory.clear();
+        if (events != null) {
+            stageEvent().setMove(MoveEvent.Kind.MOVE_APPLIED, currentPlayerIndex, moves.size(), move);
+        }
+    }
+
+    public boolean canUndo() {
+        lock.lock();
+        try {
+            return !currentTurnChips.isEmpty() || !undoHistory.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean canRedo() {
+        lock.lock();
+        try {
+            return currentTurnChips.isEmpty() && !redoHistory.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getUndoDepth() {
+        lock.lock();
+        try {
+            return undoHistory.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Chips taken so far in an unfinished turn are handed back first; they
+    // never became a move, so that step cannot be redone.
+    public boolean undo() {
+        return write(() -> {
+            if (!currentTurnChips.isEmpty()) {
+                Player currentPlayer = players.get(currentPlayerIndex);
+                for (ChipColor color : currentTurnChips) {
+                    currentPlayer.takeChip(color, -1);
+                }
+                currentTurnChips.clear();
                 lastError = null;
+                return true;
             }
-        } else if (currentTurnChips.size() == 2) {
-            if (currentTurnChips.contains(color)) {
-                throw new IllegalMoveException("Third chip must be a different color than the first two");
+            if (undoHistory.isEmpty()) {
+                return false;
             }
 
-            Player currentPlayer = players.get(currentPlayerIndex);
-            currentPlayer.takeChip(color, 1);
-
-            List<ChipColor> moveColors = new ArrayList<>();
-            moveColors.add(currentTurnChips.get(0));
-            moveColors.add(currentTurnChips.get(1));
-            moveColors.add(color);
-            moves.add(new PlayerMove(MoveType.TAKE_THREE_DIFF, -1, moveColors));
+            MoveDelta delta = undoHistory.pop();
+            Player player = players.get(delta.getPlayerIndex());
+            for (ChipColor color : ChipColor.values()) {
+                player.takeChip(color, -delta.getChipChange(color));
+            }
+            player.addVictoryPoints(-delta.getVictoryPointChange());
+            if (delta.getRemovedCard() != null) {
+                board.restoreSlot(delta.getCardPosition());
+            }
+            currentPlayerIndex = delta.getPlayerIndex();
+            PlayerMove undone = moves.remove(moves.size() - 1);
+            gameOver = false;
+            lastError = null;
+            if (events != null) {
+                stageEvent().setMove(MoveEvent.Kind.MOVE_UNDONE, currentPlayerIndex, moves.size(), undone);
+            }
 
-            nextPlayer();
+            redoHistory.push(delta);
             save();
+            return true;
+        });
+    }
+
+    public boolean redo() {
+        return write(() -> {
+            if (!canRedo()) {
+                return false;
+            }
+
+            MoveDelta delta = redoHistory.pop();
+            Player player = players.get(delta.getPlayerIndex());
+            for (ChipColor color : ChipColor.values()) {
+                player.takeChip(color, delta.getChipChange(color));
+            }
+            player.addVictoryPoints(delta.getVictoryPointChange());
+            if (delta.getRemovedCard() != null) {
+                board.removeSlot(delta.getCardPosition());
+            }
+            moves.add(delta.getMove());
+            undoHistory.push(delta);
             lastError = null;
-        }
+            if (events != null) {
+                stageEvent().setMove(MoveEvent.Kind.MOVE_APPLIED, delta.getPlayerIndex(), moves.size(),
+                        delta.getMove());
+            }
+
+            if (delta.getRemovedCard() != null) {
+                checkEndGame();
+            }
+            if (!gameOver) {
+                nextPlayer();
+            }
+            save();
+            return true;
+        });
+    }
+
+    public void clearHistory() {
+        write(() -> {
+            undoHistory.clear();
+            redoHistory.clear();
+            return true;
+        });
     }
 
     private void nextPlayer() {
@@ -161,21 +590,39 @@ public class Game {
     }
 
     public void startNewGame() {
-        saver.backupSave();
-        board.reset();
-        for (Player player : players) {
-            player.reset();
-        }
-        currentPlayerIndex = 0;
-        moves.clear();
-        currentTurnChips.clear();
-        lastError = null;
-        save();
+        write(() -> {
+            if (saver != null) {
+                saver.queueBackup();
+            }
+            board.reset();
+            for (Player player : players) {
+                player.reset();
+            }
+            currentPlayerIndex = 0;
+            moves.clear();
+            clearHistory();
+            currentTurnChips.clear();
+            lastError = null;
+            publishReset(MoveEvent.Kind.NEW_GAME);
+            save();
+            return true;
+        });
     }
 
+    // Encodes the save under the lock; the write itself happens once the
+    // lock is released, by the outermost change when called from one.
     public void save() {
-        if (saver != null) {
-            saver.saveGame(this);
+        if (saver == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            saver.queueSave(this);
+        } finally {
+            lock.unlock();
+        }
+        if (!lock.isHeldByCurrentThread()) {
+            saver.flush();
         }
     }
 
@@ -185,23 +632,48 @@ public class Game {
         }
     }
 
+    // Never blocks: returns the immutable view published by the last change.
+    // Only a game with view publishing turned off builds one here instead.
     public GameViewState getViewState() {
+        GameViewState current = view;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            return buildViewState();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For games nobody reads views from, such as a saver's replica or a
+    // search driving applyUnchecked: changes then build no view at all.
+    public void setViewPublishing(boolean enabled) {
+        write(() -> {
+            publishViews = enabled;
+            return true;
+        });
+    }
+
+    private GameViewState buildViewState() {
         Player p1 = players.get(0);
         Player p2 = players.get(1);
 
         return new GameViewState(
                 currentPlayerIndex,
                 board.getCards(),
-                p1.getChips(),
-                p2.getChips(),
+                Collections.unmodifiableMap(p1.getChips()),
+                Collections.unmodifiableMap(p2.getChips()),
                 p1.getVictoryPoints(),
                 p2.getVictoryPoints(),
                 lastError,
-                new ArrayList<>(currentTurnChips));
+                Collections.unmodifiableList(new ArrayList<>(currentTurnChips)),
+                version);
     }
 
     private void checkEndGame() {
-        if (board.getCards().isEmpty()) {
+        if (board.isEmpty()) {
             gameOver = true;
 
             Player p1 = players.get(0);
@@ -223,8 +695,118 @@ public class Game {
         }
     }
 
+    public GameSnapshot captureSnapshot() {
+        lock.lock();
+        try {
+            ChipColor[] colors = ChipColor.values();
+            int[][] chips = new int[players.size()][colors.length];
+            int[] victoryPoints = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                for (ChipColor color : colors) {
+                    chips[i][color.ordinal()] = player.getChipCount(color);
+                }
+                victoryPoints[i] = player.getVictoryPoints();
+            }
+            return new GameSnapshot(board.getCards(), chips, victoryPoints, currentPlayerIndex,
+                    currentTurnChips, gameOver, lastError);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Restores the position only; the move and undo history are cleared
+    // because a snapshot does not carry them.
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        write(() -> {
+            board = new Board(snapshot.getCards());
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                player.reset();
+                player.addVictoryPoints(snapshot.getVictoryPoints(i));
+                for (ChipColor color : ChipColor.values()) {
+                    player.takeChip(color, snapshot.getChipCount(i, color));
+                }
+            }
+            currentPlayerIndex = snapshot.getCurrentPlayerIndex();
+            currentTurnChips.clear();
+            currentTurnChips.addAll(snapshot.getCurrentTurnChips());
+            gameOver = snapshot.isGameOver();
+            lastError = snapshot.getLastError();
+            moves.clear();
+            clearHistory();
+            publishReset(MoveEvent.Kind.GAME_RESET);
+            return true;
+        });
+    }
+
+    public GameState toState() {
+        lock.lock();
+        try {
+            ChipColor[] colors = ChipColor.values();
+            int[][] chips = new int[players.size()][colors.length];
+            int[] victoryPoints = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                for (ChipColor color : colors) {
+                    chips[i][color.ordinal()] = player.getChipCount(color);
+                }
+                victoryPoints[i] = player.getVictoryPoints();
+            }
+            return GameState.of(board, chips, victoryPoints, currentPlayerIndex, currentTurnChips, gameOver);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The state must come from this game's board layout. Like restoreSnapshot,
+    // this clears the move and undo history.
+    public void loadState(GameState state) {
+        write(() -> {
+            for (int slot = 0; slot < board.getSlotCount(); slot++) {
+                if (state.isAvailable(slot)) {
+                    board.restoreSlot(slot);
+                } else {
+                    board.removeSlot(slot);
+                }
+            }
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                player.reset();
+                player.addVictoryPoints(state.getVictoryPoints(i));
+                for (ChipColor color : ChipColor.values()) {
+                    player.takeChip(color, state.getChips(i, color));
+                }
+            }
+            currentPlayerIndex = state.getCurrentPlayer();
+            currentTurnChips.clear();
+            currentTurnChips.addAll(state.getTurnChips());
+            gameOver = state.isGameOver();
+            lastError = null;
+            moves.clear();
+            clearHistory();
+            if (saver != null) {
+                saver.invalidateJournal();
+            }
+            publishReset(MoveEvent.Kind.GAME_RESET);
+            return true;
+        });
+    }
+
+    public boolean isGameOver() {
+        lock.lock();
+        try {
+            return gameOver;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void setLastError(String error) {
-        this.lastError = error;
+        write(() -> {
+            this.lastError = error;
+            return true;
+        });
     }
 
     public Board getBoard() {
@@ -236,21 +818,42 @@ public class Game {
     }
 
     public int getCurrentPlayerIndex() {
-        return currentPlayerIndex;
+        lock.lock();
+        try {
+            return currentPlayerIndex;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public List<ChipColor> getCurrentTurnChips() {
-        return new ArrayList<>(currentTurnChips);
+        lock.lock();
+        try {
+            return new ArrayList<>(currentTurnChips);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void setState(Board board, int currentPlayerIndex, List<ChipColor> turnChips) {
-        this.board = board;
-        this.currentPlayerIndex = currentPlayerIndex;
-        this.currentTurnChips.clear();
-        this.currentTurnChips.addAll(turnChips);
+        write(() -> {
+            this.board = board;
+            this.currentPlayerIndex = currentPlayerIndex;
+            this.currentTurnChips.clear();
+            this.currentTurnChips.addAll(turnChips);
+            clearHistory();
+            if (saver != null) {
+                saver.invalidateJournal();
+            }
+            publishReset(MoveEvent.Kind.GAME_RESET);
+            return true;
+        });
     }
 
     public void addMove(PlayerMove move) {
-        this.moves.add(move);
+        write(() -> {
+            this.moves.add(move);
+            return true;
+        });
     }
 }
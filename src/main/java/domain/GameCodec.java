@@ -0,0 +1,30 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public interface GameCodec {
+    boolean canDecode(ByteBuffer data);
+
+    byte[] encodeGame(Game game);
+
+    byte[] encodeMoves(Game game, int fromIndex, int toIndex);
+
+    void decodeGame(ByteBuffer data, Game game);
+
+    List<PlayerMove> decodeMoves(ByteBuffer data);
+
+    // A journal starts with the index of its first move, so moves that a newer
+    // snapshot already holds can be skipped. readJournalStart returns -1 for a
+    // journal written without a header; decodeMoves and readJournalMoves skip
+    // the header.
+    byte[] encodeJournalHeader(int firstMoveIndex);
+
+    int readJournalStart(ByteBuffer data);
+
+    // Readers over the moves stored in a save from encodeGame and in a journal
+    // from encodeMoves, starting at the first move.
+    MoveReader readSnapshotMoves(ByteBuffer data);
+
+    MoveReader readJournalMoves(ByteBuffer data);
+}
@@ -28,6 +28,14 @@ public class GameController implements Controller {
         }
     }
     
+    public void undo() {
+        game.undo();
+    }
+
+    public void redo() {
+        game.redo();
+    }
+
     public void newGame() {
         game.startNewGame();
     }
@@ -1,63 +1,136 @@
 package domain;
 
-import datasource.FileGameStorage;
 import datasource.GameStorage;
-import java.util.Map;
-import java.util.List;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class GameSaver {
+    private static final GameCodec[] KNOWN_CODECS = { new BinaryGameCodec(), new TextGameCodec() };
+
     private final GameStorage storage;
+    private final GameCodec codec;
+    private final int snapshotInterval;
+    private int snapshotMoveCount = -1;
+    private int journaledMoveCount = -1;
+    private boolean restoring = false;
+    // Storage writes encoded under a game's lock, performed in order by flush.
+    private final Queue<Runnable> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
 
     public GameSaver(GameStorage storage) {
+        this(storage, new TextGameCodec(), 0);
+    }
+
+    public GameSaver(GameStorage storage, int snapshotInterval) {
+        this(storage, new TextGameCodec(), snapshotInterval);
+    }
+
+    // With a positive interval only new moves are appended to the journal,
+    // and a full snapshot is written once that many moves have piled up.
+    public GameSaver(GameStorage storage, GameCodec codec, int snapshotInterval) {
         this.storage = storage;
+        this.codec = codec;
+        this.snapshotInterval = snapshotInterval;
     }
 
     public void backupSave() {
-        storage.backup();
+        queueBackup();
+        flush();
+    }
+
+    void queueBackup() {
+        pendingWrites.add(storage::backup);
+    }
+
+    public void invalidateJournal() {
+        snapshotMoveCount = -1;
+        journaledMoveCount = -1;
     }
 
     public void saveGame(Game game) {
-        StringBuilder sb = new StringBuilder();
+        queueSave(game);
+        flush();
+    }
 
-        sb.append(game.getCurrentPlayerIndex()).append("\n");
+    // Encodes the save while the caller holds the game still and queues the
+    // storage write, so the game's lock can be released before any I/O.
+    void queueSave(Game game) {
+        if (restoring) {
+            return;
+        }
+
+        int moveCount = game.getMoveCount();
+        if (snapshotInterval <= 0 || journaledMoveCount < 0 || moveCount < journaledMoveCount
+                || moveCount - snapshotMoveCount >= snapshotInterval) {
+            byte[] snapshot = codec.encodeGame(game);
+            pendingWrites.add(() -> {
+                storage.save(snapshot);
+                storage.clearJournal();
+            });
+            snapshotMoveCount = moveCount;
+            journaledMoveCount = moveCount;
+            return;
+        }
 
-        for (Player player : game.getPlayers()) {
-            sb.append(player.getName()).append("|");
-            sb.append(player.getVictoryPoints()).append("|");
-            for (ChipColor color : ChipColor.values()) {
-                sb.append(color.name()).append(":").append(player.getChips().get(color)).append(",");
+        if (moveCount > journaledMoveCount) {
+            byte[] moves = codec.encodeMoves(game, journaledMoveCount, moveCount);
+            if (journaledMoveCount == snapshotMoveCount) {
+                byte[] header = codec.encodeJournalHeader(snapshotMoveCount);
+                byte[] data = new byte[header.length + moves.length];
+                System.arraycopy(header, 0, data, 0, header.length);
+                System.arraycopy(moves, 0, data, header.length, moves.length);
+                moves = data;
             }
-            sb.append("\n");
+            byte[] append = moves;
+            pendingWrites.add(() -> storage.appendJournal(append));
         }
+        journaledMoveCount = moveCount;
+    }
 
-        for (Card card : game.getBoard().getCards()) {
-            sb.append(card.getId()).append("|");
-            sb.append(card.getVictoryPoints()).append("|");
-            for (Map.Entry<ChipColor, Integer> entry : card.getCost().entrySet()) {
-                sb.append(entry.getKey().name()).append(":").append(entry.getValue()).append(",");
+    // Writes are queued in the order of the changes that made them, and run
+    // one at a time, so the journal never sees appends out of order.
+    void flush() {
+        synchronized (writeLock) {
+            Runnable write;
+            while ((write = pendingWrites.poll()) != null) {
+                write.run();
             }
-            sb.append("\n");
         }
+    }
+
+    public GameState loadState(Game game) {
+        loadGame(game);
+        return game.toState();
+    }
 
-        sb.append("CHIPS\n");
-        for (ChipColor color : game.getCurrentTurnChips()) {
-            sb.append(color.name()).append(",");
+    // Saves state as a fresh game built from the template's deck and players;
+    // the template itself is left untouched.
+    public void saveState(Game template, GameState state) {
+        Board board = template.getBoard();
+        List<Card> cards = new ArrayList<>();
+        for (int slot = 0; slot < board.getSlotCount(); slot++) {
+            cards.add(board.getCardInSlot(slot));
         }
-        sb.append("\n");
-
-        sb.append("MOVES\n");
-        System.out.println(game.getMoves().size());
-        for (PlayerMove move : game.getMoves()) {
-            sb.append(move.getType().name()).append("|");
-            sb.append(move.getCardId()).append("|");
-            for (ChipColor color : move.getColors()) {
-                sb.append(color.name()).append(",");
-            }
-            sb.append("\n");
+        List<Player> players = new ArrayList<>();
+        for (Player player : template.getPlayers()) {
+            players.add(new Player(player.getName(), player.getStrategy()));
         }
+        Game game = new Game(new Board(cards), players, null);
+        game.loadState(state);
+        invalidateJournal();
+        saveGame(game);
+    }
 
-        storage.save(sb.toString());
+    public static GameCodec codecFor(ByteBuffer data) {
+        for (GameCodec known : KNOWN_CODECS) {
+            if (known.canDecode(data)) {
+                return known;
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized save format");
     }
 
     public void loadGame(Game game) {
@@ -65,93 +138,65 @@ public class GameSaver {
             return;
         }
 
-        try {
-            String data = storage.load();
-            String[] lines = data.split("\n");
-
-            int lineIndex = 0;
-            int currentPlayerIndex = Integer.parseInt(lines[lineIndex++]);
-
-            for (int i = 0; i < 2; i++) {
-                String[] playerData = lines[lineIndex++].split("\\|");
-                Player player = game.getPlayers().get(i);
-                player.reset();
-
-                int vp = Integer.parseInt(playerData[1]);
-                for (int v = 0; v < vp; v++) {
-                    player.addVictoryPoints(1);
-                }
+        game.update(() -> {
+            try {
+                ByteBuffer data = storage.loadView();
+                GameCodec snapshotCodec = codecFor(data);
+                snapshotCodec.decodeGame(data, game);
+                int snapshotMoves = game.getMoveCount();
 
-                String[] chips = playerData[2].split(",");
-                for (String chip : chips) {
-                    if (!chip.isEmpty()) {
-                        String[] parts = chip.split(":");
-                        ChipColor color = ChipColor.valueOf(parts[0]);
-                        int count = Integer.parseInt(parts[1]);
-                        player.takeChip(color, count);
-                    }
+                if (!replayJournal(game, snapshotCodec, snapshotMoves)) {
+                    storage.clearJournal();
                 }
-            }
-
-            Board newBoard = new Board();
-            newBoard.getCards().clear();
 
-            while (lineIndex < lines.length && !lines[lineIndex].equals("CHIPS")) {
-                String[] cardData = lines[lineIndex++].split("\\|");
-                int id = Integer.parseInt(cardData[0]);
-                int vp = Integer.parseInt(cardData[1]);
-
-                Map<ChipColor, Integer> cost = new java.util.HashMap<>();
-                String[] costData = cardData[2].split(",");
-                for (String c : costData) {
-                    if (!c.isEmpty()) {
-                        String[] parts = c.split(":");
-                        cost.put(ChipColor.valueOf(parts[0]), Integer.parseInt(parts[1]));
-                    }
+                if (snapshotCodec.getClass() == codec.getClass()) {
+                    snapshotMoveCount = snapshotMoves;
+                    journaledMoveCount = game.getMoveCount();
+                } else {
+                    invalidateJournal();
                 }
 
-                newBoard.getCards().add(new Card(id, cost, vp));
+            } catch (Exception e) {
+                e.printStackTrace();
             }
+        });
+    }
 
-            lineIndex++;
-            java.util.List<ChipColor> turnChips = new java.util.ArrayList<>();
-            if (lineIndex < lines.length && !lines[lineIndex].isEmpty() && !lines[lineIndex].equals("MOVES")) {
-                String[] chipData = lines[lineIndex].split(",");
-                for (String chip : chipData) {
-                    if (!chip.isEmpty()) {
-                        turnChips.add(ChipColor.valueOf(chip));
-                    }
-                }
-                lineIndex++;
-            }
+    // Returns false when the snapshot already holds every journaled move,
+    // which is what a crash between saving a snapshot and clearing the
+    // journal leaves behind.
+    private boolean replayJournal(Game game, GameCodec journalCodec, int snapshotMoves) {
+        ByteBuffer journal = storage.loadJournalView();
+        if (!journal.hasRemaining()) {
+            return true;
+        }
 
-            lineIndex++;
-
-            if (lineIndex < lines.length && lines[lineIndex].equals("MOVES")) {
-                lineIndex++;
-                while (lineIndex < lines.length && !lines[lineIndex].isEmpty()) {
-                    String[] moveData = lines[lineIndex++].split("\\|");
-                    MoveType type = MoveType.valueOf(moveData[0]);
-                    int cardId = Integer.parseInt(moveData[1]);
-
-                    List<ChipColor> colors = new ArrayList<>();
-                    if (moveData.length > 2 && !moveData[2].isEmpty()) {
-                        String[] colorData = moveData[2].split(",");
-                        for (String c : colorData) {
-                            if (!c.isEmpty()) {
-                                colors.add(ChipColor.valueOf(c));
-                            }
-                        }
+        List<PlayerMove> moves = journalCodec.decodeMoves(journal);
+        int skip = journalSkip(journalCodec.readJournalStart(journal), snapshotMoves);
+        if (skip >= moves.size()) {
+            return false;
+        }
+        restoring = true;
+        try {
+            for (PlayerMove move : moves.subList(skip, moves.size())) {
+                try {
+                    game.applyMove(move);
+                } catch (IllegalMoveException e) {
+                    if (!game.isGameOver()) {
+                        throw e;
                     }
-
-                    game.addMove(new PlayerMove(type, cardId, colors));
                 }
             }
-
-            game.setState(newBoard, currentPlayerIndex, turnChips);
-
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IllegalMoveException e) {
+            System.err.println("Error replaying journal: " + e.getMessage());
+        } finally {
+            restoring = false;
         }
+        return true;
+    }
+
+    // Number of leading journal moves that the snapshot already holds.
+    static int journalSkip(int journalStart, int snapshotMoves) {
+        return journalStart < 0 ? 0 : Math.max(0, snapshotMoves - journalStart);
     }
 }
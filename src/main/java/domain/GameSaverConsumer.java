@@ -0,0 +1,61 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Saves from a MoveEventRing consumer thread. The live Game belongs to the UI
+// thread, so this keeps a private replica that follows the event stream and
+// saves the replica once per batch; a burst of moves becomes one journal
+// append instead of one write per move.
+public class GameSaverConsumer implements MoveEventHandler {
+    private final GameSaver saver;
+    private final Game replica;
+
+    // Must be called on the thread that owns source, before it starts
+    // publishing.
+    public GameSaverConsumer(Game source, GameSaver saver) {
+        this.saver = saver;
+        List<Player> players = new ArrayList<>();
+        for (Player player : source.getPlayers()) {
+            players.add(new Player(player.getName(), null));
+        }
+        this.replica = new Game(new Board(), players, null);
+        replica.setViewPublishing(false);
+        reset(source.captureSnapshot(), source.getMoves());
+    }
+
+    @Override
+    public void onEvent(MoveEvent event, long sequence, boolean endOfBatch) {
+        switch (event.getKind()) {
+            case MOVE_APPLIED:
+                // Already validated by the live game; applyUnchecked also
+                // completes a turn the replica inherited half-taken.
+                replica.applyUnchecked(PackedMove.fromPlayerMove(event.getMove(), replica.getBoard()));
+                break;
+            case MOVE_UNDONE:
+                replica.undo();
+                break;
+            case NEW_GAME:
+                // Moves earlier in this batch are not saved yet; the backup
+                // must hold the finished game, as Game.startNewGame's does.
+                saver.saveGame(replica);
+                saver.backupSave();
+                reset(event.getSnapshot(), event.getMoves());
+                break;
+            case GAME_RESET:
+                reset(event.getSnapshot(), event.getMoves());
+                break;
+        }
+        if (endOfBatch) {
+            saver.saveGame(replica);
+        }
+    }
+
+    private void reset(GameSnapshot snapshot, List<PlayerMove> moves) {
+        replica.restoreSnapshot(snapshot);
+        for (PlayerMove move : moves) {
+            replica.addMove(move);
+        }
+        saver.invalidateJournal();
+    }
+}
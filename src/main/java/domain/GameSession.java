@@ -0,0 +1,47 @@
+package domain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+// A Game that is only ever touched from its own serial executor, so it stays
+// single-threaded no matter how many connections drive it.
+public class GameSession {
+    private final String id;
+    private final Game game;
+    private final SerialExecutor executor;
+    private volatile long lastUsedNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    GameSession(String id, Game game, Executor workers) {
+        this.id = id;
+        this.game = game;
+        this.executor = new SerialExecutor(workers);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public <T> CompletableFuture<T> submit(Function<Game, T> task) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Session " + id + " is closed"));
+        }
+        lastUsedNanos = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> task.apply(game), executor);
+    }
+
+    void touch() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    // Refuses new tasks and saves once the queued ones have run.
+    CompletableFuture<Void> close() {
+        closed = true;
+        return CompletableFuture.runAsync(game::save, executor);
+    }
+}
@@ -0,0 +1,150 @@
+package domain;
+
+import datasource.GameStorage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Hosts any number of games keyed by session id. Each session gets its own
+// storage from the factory and loads its previous save, if any, as the first
+// task on its executor. All sessions share one small worker pool. A session
+// nobody has used for the idle timeout is saved and dropped; opening its id
+// again loads it back from storage.
+public class GameSessionManager implements AutoCloseable {
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final Function<String, GameStorage> storageFactory;
+    private final int snapshotInterval;
+    private final long idleTimeoutNanos;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService evictor;
+    private final ConcurrentHashMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+    // Final saves of evicted sessions that may still be running, by id.
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> pendingCloses = new ConcurrentHashMap<>();
+
+    public GameSessionManager(Function<String, GameStorage> storageFactory, int snapshotInterval,
+            int workerThreads) {
+        this(storageFactory, snapshotInterval, workerThreads, 0);
+    }
+
+    // An idle timeout of zero keeps sessions open until close().
+    public GameSessionManager(Function<String, GameStorage> storageFactory, int snapshotInterval,
+            int workerThreads, long idleTimeoutMillis) {
+        this.storageFactory = storageFactory;
+        this.snapshotInterval = snapshotInterval;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-session-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (idleTimeoutMillis > 0) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-session-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    // Opening counts as use, and happens atomically with eviction, so a
+    // session returned here is not evicted before the caller submits to it.
+    public GameSession open(String id) {
+        if (!SESSION_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid session id: " + id);
+        }
+        return sessions.compute(id, (key, session) -> {
+            if (session == null) {
+                session = createSession(key);
+            }
+            session.touch();
+            return session;
+        });
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        for (String id : sessions.keySet()) {
+            sessions.computeIfPresent(id, (key, session) -> {
+                if (now - session.getLastUsedNanos() < idleTimeoutNanos) {
+                    return session;
+                }
+                // Recorded under the same key lock open() takes, so a new
+                // session for this id always sees the pending save.
+                CompletableFuture<Void> closing = session.close().exceptionally(e -> {
+                    e.printStackTrace();
+                    return null;
+                });
+                pendingCloses.put(key, closing);
+                closing.whenComplete((result, e) -> pendingCloses.remove(key, closing));
+                return null;
+            });
+        }
+    }
+
+    // Waits for an evicted session's final save before loading the same id,
+    // otherwise the load could read the save from before that session's last moves.
+    private GameSession createSession(String id) {
+        CompletableFuture<Void> closing = pendingCloses.remove(id);
+        if (closing != null) {
+            closing.join();
+        }
+        GameSaver saver = new GameSaver(storageFactory.apply(id), new BinaryGameCodec(), snapshotInterval);
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1", null));
+        players.add(new Player("Player 2", null));
+        GameSession session = new GameSession(id, new Game(new Board(), players, saver), workers);
+        session.submit(game -> {
+            game.loadIfExists();
+            return null;
+        });
+        return session;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // Saves and drops every session, then stops the workers.
+    @Override
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        List<CompletableFuture<Void>> closing = new ArrayList<>(pendingCloses.values());
+        for (String id : sessions.keySet()) {
+            GameSession session = sessions.remove(id);
+            if (session != null) {
+                closing.add(session.close());
+            }
+        }
+        try {
+            CompletableFuture.allOf(closing.toArray(new CompletableFuture<?>[0]))
+                    .get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            e.printStackTrace();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
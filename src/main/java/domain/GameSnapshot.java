@@ -0,0 +1,54 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class GameSnapshot {
+    private final List<Card> cards;
+    private final int[][] playerChips;
+    private final int[] playerVictoryPoints;
+    private final int currentPlayerIndex;
+    private final List<ChipColor> currentTurnChips;
+    private final boolean gameOver;
+    private final String lastError;
+
+    GameSnapshot(List<Card> cards, int[][] playerChips, int[] playerVictoryPoints, int currentPlayerIndex,
+            List<ChipColor> currentTurnChips, boolean gameOver, String lastError) {
+        this.cards = Collections.unmodifiableList(new ArrayList<>(cards));
+        this.playerChips = playerChips;
+        this.playerVictoryPoints = playerVictoryPoints;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.currentTurnChips = Collections.unmodifiableList(new ArrayList<>(currentTurnChips));
+        this.gameOver = gameOver;
+        this.lastError = lastError;
+    }
+
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    public int getChipCount(int playerIndex, ChipColor color) {
+        return playerChips[playerIndex][color.ordinal()];
+    }
+
+    public int getVictoryPoints(int playerIndex) {
+        return playerVictoryPoints[playerIndex];
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public List<ChipColor> getCurrentTurnChips() {
+        return currentTurnChips;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
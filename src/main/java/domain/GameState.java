@@ -0,0 +1,310 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable two-player position packed into three longs and an int. Card
+// availability is a bitmask over the slots of the Board it was taken from, so
+// a state only means something next to that deck. Each player word holds five
+// 8-bit chip counts followed by a 16-bit VP total; meta holds the side to move,
+// up to two chips taken so far this turn and the game-over flag.
+public final class GameState {
+    public static final int MAX_SLOTS = 64;
+    public static final int MAX_CHIPS = 0xFF;
+    public static final int MAX_VICTORY_POINTS = 0xFFFF;
+    public static final int MAX_LEGAL_MOVES = MAX_SLOTS + 5 + 10;
+
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final int VP_SHIFT = 40;
+    private static final int TURN_COUNT_SHIFT = 1;
+    private static final int TURN_COLOR_SHIFT = 3;
+    private static final int GAME_OVER = 1 << 9;
+
+    private final long cards;
+    private final long player0;
+    private final long player1;
+    private final int meta;
+
+    private GameState(long cards, long player0, long player1, int meta) {
+        this.cards = cards;
+        this.player0 = player0;
+        this.player1 = player1;
+        this.meta = meta;
+    }
+
+    public static GameState of(Board deck, int[][] chips, int[] victoryPoints, int currentPlayer,
+            List<ChipColor> turnChips, boolean gameOver) {
+        if (deck.getSlotCount() > MAX_SLOTS) {
+            throw new IllegalArgumentException("GameState supports at most " + MAX_SLOTS + " cards");
+        }
+        if (turnChips.size() > 2) {
+            throw new IllegalArgumentException("At most two chips can be pending in a turn");
+        }
+
+        long cards = 0;
+        for (int slot = 0; slot < deck.getSlotCount(); slot++) {
+            if (deck.isAvailable(slot)) {
+                cards |= 1L << slot;
+            }
+        }
+
+        int meta = currentPlayer | turnChips.size() << TURN_COUNT_SHIFT;
+        for (int i = 0; i < turnChips.size(); i++) {
+            meta |= turnChips.get(i).ordinal() << (TURN_COLOR_SHIFT + 3 * i);
+        }
+        if (gameOver) {
+            meta |= GAME_OVER;
+        }
+        return new GameState(cards, packPlayer(chips[0], victoryPoints[0]), packPlayer(chips[1], victoryPoints[1]),
+                meta);
+    }
+
+    // Game caps chip counts at MAX_CHIPS, so every view fits.
+    public static GameState fromView(GameViewState view, Board deck) {
+        int[][] chips = new int[2][COLORS.length];
+        for (ChipColor color : COLORS) {
+            chips[0][color.ordinal()] = view.getP1Chips().getOrDefault(color, 0);
+            chips[1][color.ordinal()] = view.getP2Chips().getOrDefault(color, 0);
+        }
+        int[] victoryPoints = { view.getP1VP(), view.getP2VP() };
+        return of(deck, chips, victoryPoints, view.getCurrentPlayer(), view.getCurrentTurnChips(), deck.isEmpty());
+    }
+
+    private static long packPlayer(int[] chips, int victoryPoints) {
+        if (victoryPoints < 0 || victoryPoints > MAX_VICTORY_POINTS) {
+            throw new IllegalArgumentException("Victory points out of range: " + victoryPoints);
+        }
+        long packed = (long) victoryPoints << VP_SHIFT;
+        for (int c = 0; c < COLORS.length; c++) {
+            if (chips[c] < 0 || chips[c] > MAX_CHIPS) {
+                throw new IllegalArgumentException("Chip count out of range: " + chips[c]);
+            }
+            packed |= (long) chips[c] << (8 * c);
+        }
+        return packed;
+    }
+
+    public long getAvailableCards() {
+        return cards;
+    }
+
+    public boolean isAvailable(int slot) {
+        return (cards & 1L << slot) != 0;
+    }
+
+    public int getChips(int player, ChipColor color) {
+        return chips(player == 0 ? player0 : player1, color.ordinal());
+    }
+
+    public int getVictoryPoints(int player) {
+        return (int) ((player == 0 ? player0 : player1) >>> VP_SHIFT & MAX_VICTORY_POINTS);
+    }
+
+    public int getCurrentPlayer() {
+        return meta & 1;
+    }
+
+    public int getTurnChipCount() {
+        return meta >>> TURN_COUNT_SHIFT & 0x3;
+    }
+
+    public ChipColor getTurnChip(int index) {
+        return COLORS[turnColor(index)];
+    }
+
+    public List<ChipColor> getTurnChips() {
+        List<ChipColor> turnChips = new ArrayList<>(2);
+        for (int i = 0; i < getTurnChipCount(); i++) {
+            turnChips.add(getTurnChip(i));
+        }
+        return turnChips;
+    }
+
+    public boolean isGameOver() {
+        return (meta & GAME_OVER) != 0;
+    }
+
+    private static int chips(long player, int color) {
+        return (int) (player >>> (8 * color) & MAX_CHIPS);
+    }
+
+    private int turnColor(int index) {
+        return meta >>> (TURN_COLOR_SHIFT + 3 * index) & 0x7;
+    }
+
+    private boolean takenThisTurn(int color) {
+        int count = getTurnChipCount();
+        return count > 0 && turnColor(0) == color || count > 1 && turnColor(1) == color;
+    }
+
+    public boolean isLegal(Board deck, int move) {
+        if (isGameOver()) {
+            return false;
+        }
+        long player = getCurrentPlayer() == 0 ? player0 : player1;
+        int turnCount = getTurnChipCount();
+
+        switch (PackedMove.getType(move)) {
+            case BUY_CARD: {
+                int slot = PackedMove.getSlot(move);
+                if (turnCount != 0 || slot >= deck.getSlotCount() || !isAvailable(slot)) {
+                    return false;
+                }
+                Card card = deck.getCardInSlot(slot);
+                for (int c = 0; c < COLORS.length; c++) {
+                    if (chips(player, c) < card.getCost(c)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case TAKE_TWO_SAME: {
+                int color = PackedMove.getColorIndex(move, 0);
+                if (color >= COLORS.length) {
+                    return false;
+                }
+                if (turnCount == 0) {
+                    return chips(player, color) + 2 <= MAX_CHIPS;
+                }
+                return turnCount == 1 && turnColor(0) == color && chips(player, color) < MAX_CHIPS;
+            }
+            default: {
+                int c1 = PackedMove.getColorIndex(move, 0);
+                int c2 = PackedMove.getColorIndex(move, 1);
+                int c3 = PackedMove.getColorIndex(move, 2);
+                if (c1 >= COLORS.length || c2 >= COLORS.length || c3 >= COLORS.length
+                        || c1 == c2 || c2 == c3 || c1 == c3) {
+                    return false;
+                }
+                for (int i = 0; i < turnCount; i++) {
+                    int taken = turnColor(i);
+                    if (taken != c1 && taken != c2 && taken != c3) {
+                        return false;
+                    }
+                }
+                return (takenThisTurn(c1) || chips(player, c1) < MAX_CHIPS)
+                        && (takenThisTurn(c2) || chips(player, c2) < MAX_CHIPS)
+                        && (takenThisTurn(c3) || chips(player, c3) < MAX_CHIPS);
+            }
+        }
+    }
+
+    public int legalMoves(Board deck, int[] out) {
+        if (isGameOver()) {
+            return 0;
+        }
+        int count = 0;
+        if (getTurnChipCount() == 0) {
+            for (long remaining = cards; remaining != 0; remaining &= remaining - 1) {
+                int move = PackedMove.buy(Long.numberOfTrailingZeros(remaining));
+                if (isLegal(deck, move)) {
+                    out[count++] = move;
+                }
+            }
+        }
+        for (ChipColor color : COLORS) {
+            int move = PackedMove.takeTwo(color);
+            if (isLegal(deck, move)) {
+                out[count++] = move;
+            }
+        }
+        for (int c1 = 0; c1 < COLORS.length; c1++) {
+            for (int c2 = c1 + 1; c2 < COLORS.length; c2++) {
+                for (int c3 = c2 + 1; c3 < COLORS.length; c3++) {
+                    int move = PackedMove.takeThree(c1, c2, c3);
+                    if (isLegal(deck, move)) {
+                        out[count++] = move;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    public GameState apply(Board deck, PlayerMove move) throws IllegalMoveException {
+        int packed = PackedMove.fromPlayerMove(move, deck);
+        if (!isLegal(deck, packed)) {
+            throw new IllegalMoveException("Illegal move for this position");
+        }
+        return apply(deck, packed);
+    }
+
+    // Assumes isLegal(deck, move); no validation is repeated here.
+    public GameState apply(Board deck, int move) {
+        int current = getCurrentPlayer();
+        long player = current == 0 ? player0 : player1;
+        long remaining = cards;
+        int next = current ^ 1;
+        int flags = 0;
+
+        switch (PackedMove.getType(move)) {
+            case BUY_CARD: {
+                int slot = PackedMove.getSlot(move);
+                Card card = deck.getCardInSlot(slot);
+                for (int c = 0; c < COLORS.length; c++) {
+                    player -= (long) card.getCost(c) << (8 * c);
+                }
+                player += (long) card.getVictoryPoints() << VP_SHIFT;
+                remaining &= ~(1L << slot);
+                if (remaining == 0) {
+                    next = current;
+                    flags = GAME_OVER;
+                }
+                break;
+            }
+            case TAKE_TWO_SAME: {
+                int color = PackedMove.getColorIndex(move, 0);
+                player += (long) (getTurnChipCount() == 0 ? 2 : 1) << (8 * color);
+                break;
+            }
+            default: {
+                for (int i = 0; i < 3; i++) {
+                    int color = PackedMove.getColorIndex(move, i);
+                    if (!takenThisTurn(color)) {
+                        player += 1L << (8 * color);
+                    }
+                }
+                break;
+            }
+        }
+
+        return current == 0
+                ? new GameState(remaining, player, player1, next | flags)
+                : new GameState(remaining, player0, player, next | flags);
+    }
+
+    public long longHash() {
+        long h = cards * 0x9E3779B97F4A7C15L;
+        h = (h ^ player0) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ player1) * 0x165667B19E3779F9L;
+        h ^= meta;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return h ^ h >>> 29;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameState)) {
+            return false;
+        }
+        GameState other = (GameState) o;
+        return cards == other.cards && player0 == other.player0 && player1 == other.player1
+                && meta == other.meta;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = longHash();
+        return (int) (h ^ h >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return "GameState[cards=" + Long.toBinaryString(cards) + ", p0=" + Long.toHexString(player0)
+                + ", p1=" + Long.toHexString(player1) + ", meta=" + Integer.toHexString(meta) + "]";
+    }
+}
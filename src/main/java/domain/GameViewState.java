@@ -12,10 +12,18 @@ public class GameViewState {
     private final int p2VP;
     private final String errorMessage;
     private final List<ChipColor> currentTurnChips;
+    private final long version;
     
     public GameViewState(int currentPlayer, List<Card> cards, 
                         Map<ChipColor, Integer> p1Chips, Map<ChipColor, Integer> p2Chips,
                         int p1VP, int p2VP, String errorMessage, List<ChipColor> currentTurnChips) {
+        this(currentPlayer, cards, p1Chips, p2Chips, p1VP, p2VP, errorMessage, currentTurnChips, 0);
+    }
+
+    public GameViewState(int currentPlayer, List<Card> cards,
+                        Map<ChipColor, Integer> p1Chips, Map<ChipColor, Integer> p2Chips,
+                        int p1VP, int p2VP, String errorMessage, List<ChipColor> currentTurnChips,
+                        long version) {
         this.currentPlayer = currentPlayer;
         this.cards = cards;
         this.p1Chips = p1Chips;
@@ -24,6 +32,7 @@ public class GameViewState {
         this.p2VP = p2VP;
         this.errorMessage = errorMessage;
         this.currentTurnChips = currentTurnChips;
+        this.version = version;
     }
     
     public int getCurrentPlayer() { return currentPlayer; }
@@ -34,4 +43,5 @@ public class GameViewState {
     public int getP2VP() { return p2VP; }
     public String getErrorMessage() { return errorMessage; }
     public List<ChipColor> getCurrentTurnChips() { return currentTurnChips; }
+    public long getVersion() { return version; }
 }
@@ -0,0 +1,202 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+// Tree-parallel Monte Carlo Tree Search. Every worker descends the same tree;
+// visit counts and scores are atomics, a visit is counted on the way down so
+// concurrent workers spread out (virtual loss), and children are published
+// with a single CAS so no locks are taken anywhere in the search. A single
+// thread searches on the caller; more get a pool of their own, which close()
+// shuts down.
+public class MctsStrategy implements PlayerStrategy, AutoCloseable {
+    private static final double EXPLORATION = 1.4;
+    private static final int MAX_PLAYOUT_PLIES = 300;
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 500;
+
+    private final int threads;
+    private final long timeBudgetMillis;
+    private final int iterationBudget;
+    private final ForkJoinPool pool;
+    private final AtomicLong seeds = new AtomicLong(System.nanoTime());
+
+    private volatile long lastPlayouts;
+    private volatile double lastPlayoutsPerSecond;
+
+    public MctsStrategy() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_TIME_BUDGET_MILLIS, Integer.MAX_VALUE);
+    }
+
+    // Search stops at whichever budget runs out first; pass Long.MAX_VALUE or
+    // Integer.MAX_VALUE to rely on the other one.
+    public MctsStrategy(int threads, long timeBudgetMillis, int iterationBudget) {
+        this.threads = threads;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.iterationBudget = iterationBudget;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    @Override
+    public PlayerMove chooseMove(GameViewState view) {
+        Board deck = new Board(view.getCards());
+        GameState root = GameState.fromView(view, deck);
+
+        int[] rootMoves = new int[GameState.MAX_LEGAL_MOVES];
+        int rootMoveCount = root.legalMoves(deck, rootMoves);
+        if (rootMoveCount == 0) {
+            return null;
+        }
+        if (rootMoveCount == 1) {
+            return PackedMove.toPlayerMove(rootMoves[0], deck);
+        }
+
+        Node rootNode = new Node(null, root, -1, -1);
+        AtomicInteger iterations = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = timeBudgetMillis >= Long.MAX_VALUE / 1_000_000
+                ? Long.MAX_VALUE
+                : start + timeBudgetMillis * 1_000_000;
+
+        if (pool == null) {
+            search(rootNode, deck, deadline, iterations, new SplittableRandom(seeds.getAndAdd(0x9E3779B97F4A7C15L)));
+        } else {
+            List<ForkJoinTask<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                long seed = seeds.getAndAdd(0x9E3779B97F4A7C15L);
+                workers.add(pool.submit(() -> search(rootNode, deck, deadline, iterations, new SplittableRandom(seed))));
+            }
+            for (ForkJoinTask<?> worker : workers) {
+                worker.join();
+            }
+        }
+
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long playouts = Math.min(iterations.get(), (long) iterationBudget);
+        lastPlayouts = playouts;
+        lastPlayoutsPerSecond = playouts * 1e9 / elapsed;
+
+        Node best = null;
+        for (Node child : rootNode.children) {
+            if (best == null || child.visits.get() > best.visits.get()) {
+                best = child;
+            }
+        }
+        return PackedMove.toPlayerMove(best.move, deck);
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void search(Node root, Board deck, long deadline, AtomicInteger iterations, SplittableRandom random) {
+        int[] buffer = new int[GameState.MAX_LEGAL_MOVES];
+        while (System.nanoTime() < deadline && iterations.getAndIncrement() < iterationBudget) {
+            Node node = root;
+            node.visits.incrementAndGet();
+            while (true) {
+                Node[] children = node.expand(deck, buffer);
+                if (children == null) {
+                    break;
+                }
+                node = select(node, children);
+                if (node.visits.incrementAndGet() == 1) {
+                    break;
+                }
+            }
+
+            int result = playout(node.state, deck, random, buffer);
+            for (Node n = node; n.parent != null; n = n.parent) {
+                n.score.addAndGet(n.mover == 0 ? result : 2 - result);
+            }
+        }
+    }
+
+    private Node select(Node parent, Node[] children) {
+        double logParent = Math.log(Math.max(1, parent.visits.get()));
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            int visits = child.visits.get();
+            if (visits == 0) {
+                return child;
+            }
+            double value = child.score.get() / (2.0 * visits) + EXPLORATION * Math.sqrt(logParent / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Returns player 0's result in half points: 2 for a win, 1 for a draw.
+    private int playout(GameState state, Board deck, SplittableRandom random, int[] buffer) {
+        for (int ply = 0; ply < MAX_PLAYOUT_PLIES && !state.isGameOver(); ply++) {
+            int count = state.legalMoves(deck, buffer);
+            if (count == 0) {
+                break;
+            }
+            int buys = 0;
+            while (buys < count && PackedMove.getType(buffer[buys]) == MoveType.BUY_CARD) {
+                buys++;
+            }
+            int move = buys > 0 && random.nextBoolean()
+                    ? buffer[random.nextInt(buys)]
+                    : buffer[random.nextInt(count)];
+            state = state.apply(deck, move);
+        }
+        int p0 = state.getVictoryPoints(0);
+        int p1 = state.getVictoryPoints(1);
+        return p0 > p1 ? 2 : p0 == p1 ? 1 : 0;
+    }
+
+    private static class Node {
+        private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+
+        final Node parent;
+        final GameState state;
+        final int move;
+        final int mover;
+        final AtomicInteger visits = new AtomicInteger();
+        final AtomicLong score = new AtomicLong();
+        volatile Node[] children;
+
+        Node(Node parent, GameState state, int move, int mover) {
+            this.parent = parent;
+            this.state = state;
+            this.move = move;
+            this.mover = mover;
+        }
+
+        Node[] expand(Board deck, int[] buffer) {
+            Node[] existing = children;
+            if (existing == null) {
+                int count = state.legalMoves(deck, buffer);
+                Node[] created = new Node[count];
+                for (int i = 0; i < count; i++) {
+                    created[i] = new Node(this, state.apply(deck, buffer[i]), buffer[i], state.getCurrentPlayer());
+                }
+                existing = CHILDREN.compareAndSet(this, null, created) ? created : children;
+            }
+            return existing.length == 0 ? null : existing;
+        }
+    }
+}
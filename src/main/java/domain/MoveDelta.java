@@ -0,0 +1,65 @@
+package domain;
+
+import java.util.List;
+
+// Everything needed to take one applied move back off the board: the move
+// itself, which player made it, the chips it gained (positive) or paid
+// (negative), the card it removed and where it sat, and whose turn it was.
+public class MoveDelta {
+    private final PlayerMove move;
+    private final int playerIndex;
+    private final int[] chipChange;
+    private final Card removedCard;
+    private final int cardPosition;
+    private final int victoryPointChange;
+
+    public MoveDelta(PlayerMove move, int playerIndex, int[] chipChange, Card removedCard, int cardPosition,
+            int victoryPointChange) {
+        this.move = move;
+        this.playerIndex = playerIndex;
+        this.chipChange = chipChange;
+        this.removedCard = removedCard;
+        this.cardPosition = cardPosition;
+        this.victoryPointChange = victoryPointChange;
+    }
+
+    public static MoveDelta chips(PlayerMove move, int playerIndex, List<ChipColor> taken) {
+        int[] change = new int[ChipColor.values().length];
+        for (ChipColor color : taken) {
+            change[color.ordinal()]++;
+        }
+        return new MoveDelta(move, playerIndex, change, null, -1, 0);
+    }
+
+    public static MoveDelta purchase(PlayerMove move, int playerIndex, Card card, int cardPosition) {
+        int[] change = new int[ChipColor.values().length];
+        for (ChipColor color : ChipColor.values()) {
+            change[color.ordinal()] = -card.getCost(color);
+        }
+        return new MoveDelta(move, playerIndex, change, card, cardPosition, card.getVictoryPoints());
+    }
+
+    public PlayerMove getMove() {
+        return move;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public int getChipChange(ChipColor color) {
+        return chipChange[color.ordinal()];
+    }
+
+    public Card getRemovedCard() {
+        return removedCard;
+    }
+
+    public int getCardPosition() {
+        return cardPosition;
+    }
+
+    public int getVictoryPointChange() {
+        return victoryPointChange;
+    }
+}
@@ -0,0 +1,76 @@
+package domain;
+
+import java.util.List;
+
+// One preallocated slot of a MoveEventRing. The ring overwrites the fields in
+// place for every publication, so handlers must copy anything they want to
+// keep past their onEvent call.
+public class MoveEvent {
+    public enum Kind {
+        MOVE_APPLIED,
+        MOVE_UNDONE,
+        GAME_RESET,
+        NEW_GAME
+    }
+
+    private Kind kind;
+    private int playerIndex;
+    private int moveCount;
+    private PlayerMove move;
+    private GameSnapshot snapshot;
+    private List<PlayerMove> moves;
+
+    void setMove(Kind kind, int playerIndex, int moveCount, PlayerMove move) {
+        this.kind = kind;
+        this.playerIndex = playerIndex;
+        this.moveCount = moveCount;
+        this.move = move;
+        this.snapshot = null;
+        this.moves = null;
+    }
+
+    void copyFrom(MoveEvent other) {
+        this.kind = other.kind;
+        this.playerIndex = other.playerIndex;
+        this.moveCount = other.moveCount;
+        this.move = other.move;
+        this.snapshot = other.snapshot;
+        this.moves = other.moves;
+    }
+
+    void setReset(Kind kind, GameSnapshot snapshot, List<PlayerMove> moves) {
+        this.kind = kind;
+        this.playerIndex = snapshot.getCurrentPlayerIndex();
+        this.moveCount = moves.size();
+        this.move = null;
+        this.snapshot = snapshot;
+        this.moves = moves;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    // Number of moves in the game's log once this event has been applied.
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // The move applied or undone; null for resets.
+    public PlayerMove getMove() {
+        return move;
+    }
+
+    // The replaced position and its move log; only set for resets.
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<PlayerMove> getMoves() {
+        return moves;
+    }
+}
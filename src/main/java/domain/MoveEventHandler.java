@@ -0,0 +1,5 @@
+package domain;
+
+public interface MoveEventHandler {
+    void onEvent(MoveEvent event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,173 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-producer, multi-consumer ring of preallocated MoveEvent slots. The
+// producer fills a slot in place and publishes it by advancing the cursor;
+// every consumer runs on its own thread with its own sequence and sees every
+// event. A consumer takes everything published since it last looked as one
+// batch, so a slow consumer catches up in bigger batches rather than falling
+// further behind. The producer never laps the slowest consumer: when the ring
+// is full it waits, which is the backpressure, so Game publishes only after
+// releasing its lock. Nothing is allocated per event.
+public class MoveEventRing implements AutoCloseable {
+    private static final int SPIN_TRIES = 100;
+    private static final long PRODUCER_PARK_NANOS = 10_000;
+    private static final long CONSUMER_PARK_NANOS = 100_000_000;
+
+    private final MoveEvent[] events;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Consumer> consumers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean closed;
+    private long nextSequence;
+    private long cachedGate = -1;
+
+    public MoveEventRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        events = new MoveEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new MoveEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    public void addConsumer(String name, MoveEventHandler handler) {
+        if (running || closed) {
+            throw new IllegalStateException("Consumers must be added before the ring starts");
+        }
+        consumers.add(new Consumer(name, handler));
+    }
+
+    public void start() {
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    // Copies the event into the next slot. Events published after close() are
+    // dropped; nothing would consume them.
+    void publish(MoveEvent event) {
+        if (closed) {
+            return;
+        }
+        long sequence = claim();
+        events[(int) sequence & mask].copyFrom(event);
+        publish(sequence);
+    }
+
+    private long claim() {
+        long sequence = nextSequence++;
+        long wrapPoint = sequence - events.length;
+        if (wrapPoint > cachedGate) {
+            long gate;
+            int tries = 0;
+            while (wrapPoint > (gate = slowestConsumer(sequence - 1))) {
+                if (++tries > SPIN_TRIES) {
+                    LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            cachedGate = gate;
+        }
+        return sequence;
+    }
+
+    private void publish(long sequence) {
+        cursor.set(sequence);
+        for (Consumer consumer : consumers) {
+            if (consumer.sleeping) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    private long slowestConsumer(long fallback) {
+        long slowest = fallback;
+        for (Consumer consumer : consumers) {
+            slowest = Math.min(slowest, consumer.sequence.get());
+        }
+        return slowest;
+    }
+
+    // Lets every consumer drain what has been published, then stops them.
+    @Override
+    public void close() {
+        closed = true;
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        for (Consumer consumer : consumers) {
+            if (consumer.thread.isAlive() && consumer.thread != Thread.currentThread()) {
+                try {
+                    consumer.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private class Consumer implements Runnable {
+        private final MoveEventHandler handler;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+        private volatile boolean sleeping;
+
+        Consumer(String name, MoveEventHandler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, "move-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            int idle = 0;
+            while (true) {
+                long available = cursor.get();
+                if (available >= next) {
+                    for (long sequence = next; sequence <= available; sequence++) {
+                        try {
+                            handler.onEvent(events[(int) sequence & mask], sequence, sequence == available);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        }
+                    }
+                    sequence.set(available);
+                    next = available + 1;
+                    idle = 0;
+                } else if (!running) {
+                    if (cursor.get() < next) {
+                        return;
+                    }
+                } else if (++idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    // The producer checks sleeping after moving the cursor, and
+                    // this re-reads the cursor after setting it, so a wakeup
+                    // cannot be missed; the timeout is only a safety net.
+                    sleeping = true;
+                    if (cursor.get() < next && running) {
+                        LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+                    }
+                    sleeping = false;
+                }
+            }
+        }
+    }
+}
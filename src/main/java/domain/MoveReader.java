@@ -0,0 +1,14 @@
+package domain;
+
+// Decodes moves one at a time straight from a save buffer. Positions are byte
+// offsets into that buffer, so a caller can remember where a move starts and
+// come back to it later without decoding everything before it.
+public interface MoveReader {
+    boolean hasNext();
+
+    PlayerMove next();
+
+    int getPosition();
+
+    void setPosition(int position);
+}
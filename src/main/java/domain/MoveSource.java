@@ -0,0 +1,24 @@
+package domain;
+
+import java.util.List;
+
+// Random access to the moves of a recorded game, in play order.
+public interface MoveSource {
+    int size();
+
+    PlayerMove get(int index);
+
+    static MoveSource of(List<PlayerMove> moves) {
+        return new MoveSource() {
+            @Override
+            public int size() {
+                return moves.size();
+            }
+
+            @Override
+            public PlayerMove get(int index) {
+                return moves.get(index);
+            }
+        };
+    }
+}
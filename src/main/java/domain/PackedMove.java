@@ -0,0 +1,75 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A move packed into an int: bits 0-1 hold the MoveType ordinal, a purchase
+// stores the board slot in bits 2-17, and chip moves store colour ordinals in
+// three-bit fields starting at bit 2.
+public final class PackedMove {
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final MoveType[] MOVE_TYPES = MoveType.values();
+
+    private PackedMove() {
+    }
+
+    public static int buy(int slot) {
+        return MoveType.BUY_CARD.ordinal() | slot << 2;
+    }
+
+    public static int takeTwo(ChipColor color) {
+        return MoveType.TAKE_TWO_SAME.ordinal() | color.ordinal() << 2;
+    }
+
+    public static int takeThree(ChipColor c1, ChipColor c2, ChipColor c3) {
+        return takeThree(c1.ordinal(), c2.ordinal(), c3.ordinal());
+    }
+
+    static int takeThree(int c1, int c2, int c3) {
+        return MoveType.TAKE_THREE_DIFF.ordinal() | c1 << 2 | c2 << 5 | c3 << 8;
+    }
+
+    public static MoveType getType(int move) {
+        return MOVE_TYPES[move & 0x3];
+    }
+
+    public static int getSlot(int move) {
+        return move >>> 2 & 0xFFFF;
+    }
+
+    public static ChipColor getColor(int move, int index) {
+        return COLORS[getColorIndex(move, index)];
+    }
+
+    static int getColorIndex(int move, int index) {
+        return move >>> (2 + 3 * index) & 0x7;
+    }
+
+    public static int fromPlayerMove(PlayerMove move, Board deck) {
+        List<ChipColor> colors = move.getColors();
+        switch (move.getType()) {
+            case BUY_CARD:
+                return buy(deck.slotOf(move.getCardId()));
+            case TAKE_TWO_SAME:
+                return takeTwo(colors.get(0));
+            default:
+                return takeThree(colors.get(0), colors.get(1), colors.get(2));
+        }
+    }
+
+    public static PlayerMove toPlayerMove(int move, Board deck) {
+        List<ChipColor> colors = new ArrayList<>(3);
+        switch (getType(move)) {
+            case BUY_CARD:
+                return new PlayerMove(MoveType.BUY_CARD, deck.getCardInSlot(getSlot(move)).getId(), colors);
+            case TAKE_TWO_SAME:
+                colors.add(getColor(move, 0));
+                return new PlayerMove(MoveType.TAKE_TWO_SAME, -1, colors);
+            default:
+                colors.add(getColor(move, 0));
+                colors.add(getColor(move, 1));
+                colors.add(getColor(move, 2));
+                return new PlayerMove(MoveType.TAKE_THREE_DIFF, -1, colors);
+        }
+    }
+}
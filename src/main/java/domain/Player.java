@@ -1,21 +1,20 @@
 package domain;
 
 import java.util.Map;
-import java.util.HashMap;
+import java.util.EnumMap;
 
 public class Player {
+    private static final ChipColor[] COLORS = ChipColor.values();
+
     private final String name;
-    private final Map<ChipColor, Integer> chips;
+    private final int[] chips;
     private int victoryPoints;
     private final PlayerStrategy strategy;
 
     public Player(String name, PlayerStrategy strategy) {
         this.name = name;
         this.strategy = strategy;
-        this.chips = new HashMap<>();
-        for (ChipColor color : ChipColor.values()) {
-            chips.put(color, 0);
-        }
+        this.chips = new int[COLORS.length];
         this.victoryPoints = 0;
     }
 
@@ -24,7 +23,15 @@ public class Player {
     }
 
     public Map<ChipColor, Integer> getChips() {
-        return new HashMap<>(chips);
+        Map<ChipColor, Integer> view = new EnumMap<>(ChipColor.class);
+        for (ChipColor color : COLORS) {
+            view.put(color, chips[color.ordinal()]);
+        }
+        return view;
+    }
+
+    public int getChipCount(ChipColor color) {
+        return chips[color.ordinal()];
     }
 
     public int getVictoryPoints() {
@@ -36,23 +43,28 @@ public class Player {
     }
 
     public boolean canAfford(Card card) {
-        Map<ChipColor, Integer> cost = card.getCost();
-        for (Map.Entry<ChipColor, Integer> entry : cost.entrySet()) {
-            if (chips.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+        for (int i = 0; i < chips.length; i++) {
+            if (chips[i] < card.getCost(i)) {
                 return false;
             }
         }
         return true;
     }
 
+    public void payCost(Card card) {
+        for (int i = 0; i < chips.length; i++) {
+            chips[i] -= card.getCost(i);
+        }
+    }
+
     public void payCost(Map<ChipColor, Integer> cost) {
         for (Map.Entry<ChipColor, Integer> entry : cost.entrySet()) {
-            chips.put(entry.getKey(), chips.get(entry.getKey()) - entry.getValue());
+            chips[entry.getKey().ordinal()] -= entry.getValue();
         }
     }
 
     public void takeChip(ChipColor color, int count) {
-        chips.put(color, chips.get(color) + count);
+        chips[color.ordinal()] += count;
     }
 
     public void addVictoryPoints(int points) {
@@ -60,8 +72,8 @@ public class Player {
     }
 
     public void reset() {
-        for (ChipColor color : ChipColor.values()) {
-            chips.put(color, 0);
+        for (int i = 0; i < chips.length; i++) {
+            chips[i] = 0;
         }
         victoryPoints = 0;
     }
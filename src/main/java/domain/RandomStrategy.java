@@ -0,0 +1,27 @@
+package domain;
+
+import java.util.SplittableRandom;
+
+public class RandomStrategy implements PlayerStrategy {
+    private final SplittableRandom random;
+    private final int[] moves = new int[GameState.MAX_LEGAL_MOVES];
+
+    public RandomStrategy() {
+        this(System.nanoTime());
+    }
+
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public PlayerMove chooseMove(GameViewState view) {
+        Board deck = new Board(view.getCards());
+        GameState state = GameState.fromView(view, deck);
+        int count = state.legalMoves(deck, moves);
+        if (count == 0) {
+            return null;
+        }
+        return PackedMove.toPlayerMove(moves[random.nextInt(count)], deck);
+    }
+}
@@ -1,41 +1,56 @@
 package domain;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.Timer;
 
-import datasource.FileGameStorage;
+import datasource.MappedFileGameStorage;
 
 public class ReplayController implements Controller {
-    private final List<PlayerMove> moves;
+    private static final int MIN_KEYFRAME_INTERVAL = 16;
+    private static final int MAX_KEYFRAMES = 1024;
+
+    private final MoveSource moves;
     private int currentIndex;
     private Game replayGame;
-    private final Game originalGame;
     private Timer replayTimer;
     private int speed;
     private boolean isPlaying;
+    private final int keyframeInterval;
+    private final List<GameSnapshot> keyframes;
+    private final List<ReplayListener> listeners = new CopyOnWriteArrayList<>();
 
     public ReplayController(Game game) {
-        this.originalGame = game;
-        this.moves = game.getMoves();
+        this(game, 0);
+    }
+
+    public ReplayController(Game game, int keyframeInterval) {
+        this(MoveSource.of(game.getMoves()), keyframeInterval);
+    }
+
+    // keyframeInterval <= 0 picks roughly sqrt(moves), but never more than
+    // MAX_KEYFRAMES snapshots, so memory stays bounded for any length of log.
+    public ReplayController(MoveSource moves, int keyframeInterval) {
+        this.moves = moves;
         this.currentIndex = 0;
         this.speed = 1000;
         this.isPlaying = false;
+        this.keyframeInterval = keyframeInterval > 0
+                ? keyframeInterval
+                : Math.max(Math.max(MIN_KEYFRAME_INTERVAL, (int) Math.sqrt(moves.size())),
+                        (moves.size() + MAX_KEYFRAMES - 1) / MAX_KEYFRAMES);
+        this.keyframes = new ArrayList<>();
         resetReplayGame();
+        keyframes.add(replayGame.captureSnapshot());
     }
 
+    // Moves are decoded from the file as the replay reaches them rather than
+    // loaded up front.
     public static ReplayController fromFile(File file) throws Exception {
-        FileGameStorage storage = new FileGameStorage(file.getAbsolutePath());
-        GameSaver saver = new GameSaver(storage);
-
-        Board board = new Board();
-        Player p1 = new Player("Player 1", new HumanClickStrategy());
-        Player p2 = new Player("Player 2", new HumanClickStrategy());
-        Game game = new Game(board, java.util.List.of(p1, p2), saver);
-
-        saver.loadGame(game);
-
-        return new ReplayController(game);
+        MappedFileGameStorage storage = new MappedFileGameStorage(file.getAbsolutePath());
+        return new ReplayController(StreamingMoveSource.open(storage), 0);
     }
 
     private void resetReplayGame() {
@@ -48,6 +63,26 @@ public class ReplayController implements Controller {
         this.replayGame = new Game(board, players, null);
     }
 
+    public void addListener(ReplayListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ReplayListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireStateChanged() {
+        for (ReplayListener listener : listeners) {
+            listener.stateChanged(this);
+        }
+    }
+
+    private void fireMoveApplied() {
+        for (ReplayListener listener : listeners) {
+            listener.moveApplied(this, currentIndex - 1);
+        }
+    }
+
     @Override
     public GameViewState getViewState() {
         return replayGame.getViewState();
@@ -66,6 +101,7 @@ public class ReplayController implements Controller {
             }
         });
         replayTimer.start();
+        fireStateChanged();
     }
 
     public void changeSpeed(int speed) {
@@ -76,59 +112,92 @@ public class ReplayController implements Controller {
     }
 
     public void pause() {
+        boolean wasPlaying = isPlaying;
         isPlaying = false;
         if (replayTimer != null) {
             replayTimer.stop();
         }
+        if (wasPlaying) {
+            fireStateChanged();
+        }
     }
 
     public void stepForward() {
         if (currentIndex < moves.size()) {
-            PlayerMove move = moves.get(currentIndex);
-            try {
-                applyMove(move);
-                currentIndex++;
-            } catch (IllegalMoveException e) {
-                e.printStackTrace();
-            }
+            advance();
+            fireMoveApplied();
         }
     }
 
     public void stepBackward() {
         if (currentIndex > 0) {
-            currentIndex--;
-            resetReplayGame();
-            for (int i = 0; i < currentIndex; i++) {
-                try {
-                    applyMove(moves.get(i));
-                } catch (IllegalMoveException e) {
-                    e.printStackTrace();
-                }
-            }
+            seekTo(currentIndex - 1);
         }
     }
 
     public void reset() {
         pause();
-        currentIndex = 0;
-        resetReplayGame();
+        seekTo(0);
     }
 
-    private void applyMove(PlayerMove move) throws IllegalMoveException {
-        switch (move.getType()) {
-            case BUY_CARD:
-                replayGame.buyCard(move.getCardId());
-                break;
-            case TAKE_TWO_SAME:
-                replayGame.takeTwo(move.getColors().get(0));
-                break;
-            case TAKE_THREE_DIFF:
-                List<ChipColor> colors = move.getColors();
-                replayGame.takeThree(colors.get(0), colors.get(1), colors.get(2));
-                break;
+    public void seekTo(int moveIndex) {
+        int before = currentIndex;
+        seek(moveIndex);
+        if (currentIndex != before) {
+            fireStateChanged();
+        }
+    }
+
+    private void seek(int moveIndex) {
+        int target = Math.max(0, Math.min(moveIndex, moves.size()));
+        int keyframe = Math.min(target / keyframeInterval, keyframes.size() - 1);
+        int keyframeIndex = keyframe * keyframeInterval;
+        int stepsBack = currentIndex - target;
+        if (stepsBack > 0 && stepsBack <= replayGame.getUndoDepth() && stepsBack <= target - keyframeIndex) {
+            while (currentIndex > target) {
+                replayGame.undo();
+                currentIndex--;
+            }
+            return;
+        }
+        if (target < currentIndex || keyframeIndex > currentIndex) {
+            replayGame.restoreSnapshot(keyframes.get(keyframe));
+            currentIndex = keyframeIndex;
+        }
+        while (currentIndex < target) {
+            advance();
         }
     }
 
+    private void advance() {
+        int appliedBefore = replayGame.getMoveCount();
+        try {
+            applyMove(moves.get(currentIndex));
+        } catch (IllegalMoveException e) {
+            if (!replayGame.isGameOver()) {
+                e.printStackTrace();
+            }
+        }
+        if (replayGame.getMoveCount() == appliedBefore) {
+            // a skipped move leaves nothing to undo, so fall back to keyframes
+            replayGame.clearHistory();
+        }
+        currentIndex++;
+        if (currentIndex % keyframeInterval == 0) {
+            int keyframe = currentIndex / keyframeInterval;
+            if (keyframe == keyframes.size()) {
+                keyframes.add(replayGame.captureSnapshot());
+            }
+            // Drops the replay game's move and undo history, which would
+            // otherwise grow with the log.
+            replayGame.restoreSnapshot(keyframes.get(keyframe));
+        }
+    }
+
+    private void applyMove(PlayerMove move) throws IllegalMoveException {
+        replayGame.applyMove(move);
+    }
+
     public int getCurrentIndex() {
         return currentIndex;
     }
@@ -0,0 +1,11 @@
+package domain;
+
+// Notified by ReplayController on the thread that changed the replay, which is
+// the Swing event thread for playback and UI-driven seeks.
+public interface ReplayListener {
+    void stateChanged(ReplayController replay);
+
+    default void moveApplied(ReplayController replay, int moveIndex) {
+        stateChanged(replay);
+    }
+}
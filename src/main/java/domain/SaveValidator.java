@@ -0,0 +1,259 @@
+package domain;
+
+import datasource.BackupStore;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Checks saves without GameSaver's forgiving loader: anything the codec cannot
+// parse is reported instead of printed and skipped. A save that parses is then
+// re-simulated from a fresh default board by playing its move list (and
+// journal) through the rules, and the result must match the stored board,
+// chips, victory points and player to move. Saves come from files on disk or
+// from the backups in a BackupStore.
+public class SaveValidator {
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final int threads;
+
+    public SaveValidator(int threads) {
+        this.threads = threads;
+    }
+
+    // One save and its journal to check.
+    public interface Source {
+        String getName();
+
+        byte[] readSave() throws IOException;
+
+        byte[] readJournal() throws IOException;
+    }
+
+    public static Source fileSource(Path file) {
+        return new Source() {
+            @Override
+            public String getName() {
+                return file.toString();
+            }
+
+            @Override
+            public byte[] readSave() throws IOException {
+                return Files.readAllBytes(file);
+            }
+
+            @Override
+            public byte[] readJournal() throws IOException {
+                Path journalPath = Paths.get(file + JOURNAL_SUFFIX);
+                return Files.exists(journalPath) ? Files.readAllBytes(journalPath) : new byte[0];
+            }
+        };
+    }
+
+    public static Source backupSource(BackupStore store, BackupStore.Entry entry) {
+        return new Source() {
+            @Override
+            public String getName() {
+                return "backup " + entry.getId() + " of " + entry.getSource();
+            }
+
+            @Override
+            public byte[] readSave() throws IOException {
+                return store.restoreSave(entry.getId());
+            }
+
+            @Override
+            public byte[] readJournal() throws IOException {
+                return store.restoreJournal(entry.getId());
+            }
+        };
+    }
+
+    public ValidationReport validate(List<Path> files) {
+        List<Source> sources = new ArrayList<>(files.size());
+        for (Path file : files) {
+            sources.add(fileSource(file));
+        }
+        return validateSources(sources);
+    }
+
+    public ValidationReport validateBackups(BackupStore store) {
+        List<Source> sources = new ArrayList<>();
+        for (BackupStore.Entry entry : store.list()) {
+            sources.add(backupSource(store, entry));
+        }
+        return validateSources(sources);
+    }
+
+    public ValidationReport validateSources(List<Source> sources) {
+        AtomicInteger nextFile = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<ValidationReport.Tally>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                ValidationReport.Tally tally = new ValidationReport.Tally();
+                for (int file = nextFile.getAndIncrement(); file < sources.size(); file = nextFile.getAndIncrement()) {
+                    validate(sources.get(file), tally);
+                }
+                return tally;
+            }));
+        }
+
+        ValidationReport.Tally total = new ValidationReport.Tally();
+        try {
+            for (Future<ValidationReport.Tally> worker : workers) {
+                total.add(worker.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return total.toReport(System.nanoTime() - start);
+    }
+
+    private static void validate(Source source, ValidationReport.Tally tally) {
+        String file = source.getName();
+        byte[] save;
+        byte[] journal;
+        try {
+            save = source.readSave();
+            journal = source.readJournal();
+        } catch (IOException | RuntimeException e) {
+            tally.add(file, 0, ValidationReport.Status.CORRUPT, "cannot read: " + e.getMessage());
+            return;
+        }
+        long bytes = save.length + journal.length;
+
+        Game stored = newGame();
+        try {
+            load(ByteBuffer.wrap(save), ByteBuffer.wrap(journal), stored);
+        } catch (IllegalMoveException | RuntimeException e) {
+            tally.add(file, bytes, ValidationReport.Status.CORRUPT, "unreadable: " + e);
+            return;
+        }
+        String mismatch = resimulate(stored);
+        tally.add(file, bytes, mismatch == null ? ValidationReport.Status.VALID : ValidationReport.Status.INCONSISTENT,
+                mismatch);
+    }
+
+    // Strict counterpart of GameSaver.loadGame: every parse error or illegal
+    // journal move propagates.
+    static void load(ByteBuffer save, ByteBuffer journal, Game game) throws IllegalMoveException {
+        GameCodec codec = GameSaver.codecFor(save);
+        codec.decodeGame(save, game);
+        if (!journal.hasRemaining()) {
+            return;
+        }
+        int start = codec.readJournalStart(journal);
+        if (start > game.getMoveCount()) {
+            throw new IllegalArgumentException("Journal starts at move " + start + " but the save holds "
+                    + game.getMoveCount());
+        }
+        List<PlayerMove> moves = codec.decodeMoves(journal);
+        int skip = GameSaver.journalSkip(start, game.getMoveCount());
+        for (PlayerMove move : moves.subList(Math.min(skip, moves.size()), moves.size())) {
+            if (game.isGameOver()) {
+                throw new IllegalMoveException("Journal continues after the end of the game");
+            }
+            try {
+                game.applyMove(move);
+            } catch (IllegalMoveException e) {
+                if (!game.isGameOver()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Returns null when replaying the stored moves reproduces the stored
+    // state, otherwise a description of the first difference.
+    static String resimulate(Game stored) {
+        Game replayed = newGame();
+        List<PlayerMove> moves = stored.getMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (replayed.isGameOver()) {
+                return "move " + i + " is played after the end of the game";
+            }
+            try {
+                replayed.applyMove(moves.get(i));
+            } catch (IllegalMoveException e) {
+                if (!replayed.isGameOver()) {
+                    return "move " + i + " is illegal: " + e.getMessage();
+                }
+            } catch (RuntimeException e) {
+                return "move " + i + " is malformed: " + e;
+            }
+        }
+        for (ChipColor color : stored.getCurrentTurnChips()) {
+            try {
+                replayed.takeChipIncremental(color);
+            } catch (IllegalMoveException e) {
+                return "chip taken this turn is illegal: " + e.getMessage();
+            }
+        }
+        return compare(stored.captureSnapshot(), replayed.captureSnapshot());
+    }
+
+    private static String compare(GameSnapshot stored, GameSnapshot replayed) {
+        if (stored.getCurrentPlayerIndex() != replayed.getCurrentPlayerIndex()) {
+            return "player to move: stored " + stored.getCurrentPlayerIndex() + ", replayed "
+                    + replayed.getCurrentPlayerIndex();
+        }
+        for (int player = 0; player < 2; player++) {
+            if (stored.getVictoryPoints(player) != replayed.getVictoryPoints(player)) {
+                return "player " + (player + 1) + " victory points: stored " + stored.getVictoryPoints(player)
+                        + ", replayed " + replayed.getVictoryPoints(player);
+            }
+            for (ChipColor color : ChipColor.values()) {
+                if (stored.getChipCount(player, color) != replayed.getChipCount(player, color)) {
+                    return "player " + (player + 1) + " " + color + " chips: stored "
+                            + stored.getChipCount(player, color) + ", replayed " + replayed.getChipCount(player, color);
+                }
+            }
+        }
+        List<Card> storedCards = stored.getCards();
+        List<Card> replayedCards = replayed.getCards();
+        if (storedCards.size() != replayedCards.size()) {
+            return "cards on board: stored " + storedCards.size() + ", replayed " + replayedCards.size();
+        }
+        for (int i = 0; i < storedCards.size(); i++) {
+            if (!sameCard(storedCards.get(i), replayedCards.get(i))) {
+                return "card " + i + " on board: stored " + storedCards.get(i).getId() + ", replayed "
+                        + replayedCards.get(i).getId();
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameCard(Card a, Card b) {
+        if (a.getId() != b.getId() || a.getVictoryPoints() != b.getVictoryPoints()) {
+            return false;
+        }
+        for (ChipColor color : ChipColor.values()) {
+            if (a.getCost(color) != b.getCost(color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Game newGame() {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1", null));
+        players.add(new Player("Player 2", null));
+        return new Game(new Board(), players, null);
+    }
+}
@@ -0,0 +1,46 @@
+package domain;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs tasks one at a time, in submission order, on a shared pool. Thousands
+// of these can sit on a handful of worker threads; a busy one hands its
+// thread back after MAX_BATCH tasks so it cannot starve the others.
+public class SerialExecutor implements Executor {
+    private static final int MAX_BATCH = 64;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor workers;
+
+    public SerialExecutor(Executor workers) {
+        this.workers = workers;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (pending.getAndIncrement() == 0) {
+            workers.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int ran = 1;; ran++) {
+            try {
+                tasks.poll().run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            if (pending.decrementAndGet() == 0) {
+                return;
+            }
+            if (ran == MAX_BATCH) {
+                workers.execute(this::drain);
+                return;
+            }
+        }
+    }
+}
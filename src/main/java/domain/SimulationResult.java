@@ -0,0 +1,126 @@
+package domain;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SimulationResult {
+    private final long games;
+    private final long firstStrategyWins;
+    private final long secondStrategyWins;
+    private final long draws;
+    private final long firstSeatWins;
+    private final long unfinishedGames;
+    private final long totalMoves;
+    private final int shortestGame;
+    private final int longestGame;
+    private final Map<Integer, CardStats> cards;
+    private final long elapsedNanos;
+
+    SimulationResult(long games, long firstStrategyWins, long secondStrategyWins, long draws, long firstSeatWins,
+            long unfinishedGames, long totalMoves, int shortestGame, int longestGame,
+            Map<Integer, CardStats> cards, long elapsedNanos) {
+        this.games = games;
+        this.firstStrategyWins = firstStrategyWins;
+        this.secondStrategyWins = secondStrategyWins;
+        this.draws = draws;
+        this.firstSeatWins = firstSeatWins;
+        this.unfinishedGames = unfinishedGames;
+        this.totalMoves = totalMoves;
+        this.shortestGame = shortestGame;
+        this.longestGame = longestGame;
+        this.cards = Collections.unmodifiableMap(new TreeMap<>(cards));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getFirstStrategyWins() {
+        return firstStrategyWins;
+    }
+
+    public long getSecondStrategyWins() {
+        return secondStrategyWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getFirstSeatWins() {
+        return firstSeatWins;
+    }
+
+    public long getUnfinishedGames() {
+        return unfinishedGames;
+    }
+
+    public double getAverageGameLength() {
+        return games == 0 ? 0 : (double) totalMoves / games;
+    }
+
+    public int getShortestGame() {
+        return shortestGame;
+    }
+
+    public int getLongestGame() {
+        return longestGame;
+    }
+
+    // Per card id, counted over decided games only.
+    public Map<Integer, CardStats> getCardStats() {
+        return cards;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    private double rate(long count) {
+        return games == 0 ? 0 : 100.0 * count / games;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%.1f games/s (%d games in %.2f s)%n", getGamesPerSecond(), games,
+                elapsedNanos / 1e9));
+        sb.append(String.format("First strategy wins: %.1f%%, second: %.1f%%, draws: %.1f%%%n",
+                rate(firstStrategyWins), rate(secondStrategyWins), rate(draws)));
+        sb.append(String.format("First seat wins: %.1f%%, unfinished: %d%n", rate(firstSeatWins), unfinishedGames));
+        sb.append(String.format("Game length: avg %.1f moves, min %d, max %d%n", getAverageGameLength(),
+                shortestGame, longestGame));
+        sb.append("Cards (avg move bought, % bought by the winner):");
+        for (Map.Entry<Integer, CardStats> entry : cards.entrySet()) {
+            sb.append(String.format("%n  card %d: %.1f, %.1f%%", entry.getKey(), entry.getValue().getAverageMove(),
+                    100 * entry.getValue().getWinnerShare()));
+        }
+        return sb.toString();
+    }
+
+    public static class CardStats {
+        long purchases;
+        long winnerPurchases;
+        long moveTotal;
+
+        void add(CardStats other) {
+            purchases += other.purchases;
+            winnerPurchases += other.winnerPurchases;
+            moveTotal += other.moveTotal;
+        }
+
+        public long getPurchases() {
+            return purchases;
+        }
+
+        public double getAverageMove() {
+            return purchases == 0 ? 0 : (double) moveTotal / purchases;
+        }
+
+        public double getWinnerShare() {
+            return purchases == 0 ? 0 : (double) winnerPurchases / purchases;
+        }
+    }
+}
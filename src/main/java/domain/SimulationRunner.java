@@ -0,0 +1,173 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Plays games between two strategies with no UI and no storage. Each worker
+// thread builds its own strategy instances from the factories, since
+// strategies are free to keep per-search state, and keeps its own tallies
+// until the run is over; strategies that are AutoCloseable are closed when
+// their worker finishes. Seats alternate so neither strategy always moves
+// first.
+public class SimulationRunner {
+    private final Supplier<PlayerStrategy> firstStrategy;
+    private final Supplier<PlayerStrategy> secondStrategy;
+    private final int threads;
+    private final int maxMoves;
+
+    public SimulationRunner(Supplier<PlayerStrategy> firstStrategy, Supplier<PlayerStrategy> secondStrategy,
+            int threads, int maxMoves) {
+        this.firstStrategy = firstStrategy;
+        this.secondStrategy = secondStrategy;
+        this.threads = threads;
+        this.maxMoves = maxMoves;
+    }
+
+    public SimulationResult run(long games) {
+        AtomicLong nextGame = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Tally>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                Tally tally = new Tally();
+                PlayerStrategy first = firstStrategy.get();
+                PlayerStrategy second = secondStrategy.get();
+                try {
+                    for (long game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                        play(first, second, game % 2 == 1, tally);
+                    }
+                } finally {
+                    close(first);
+                    close(second);
+                }
+                return tally;
+            }));
+        }
+
+        Tally total = new Tally();
+        try {
+            for (Future<Tally> worker : workers) {
+                total.add(worker.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return total.toResult(System.nanoTime() - start);
+    }
+
+    private static void close(PlayerStrategy strategy) {
+        if (strategy instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) strategy).close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void play(PlayerStrategy first, PlayerStrategy second, boolean swapSeats, Tally tally) {
+        List<Player> players = new ArrayList<>(2);
+        players.add(new Player("Player 1", swapSeats ? second : first));
+        players.add(new Player("Player 2", swapSeats ? first : second));
+        Game game = new Game(new Board(), players, null);
+        List<int[]> purchases = new ArrayList<>();
+
+        while (!game.isGameOver() && game.getMoveCount() < maxMoves) {
+            GameViewState view = game.getViewState();
+            PlayerMove move = players.get(view.getCurrentPlayer()).getStrategy().chooseMove(view);
+            if (move == null) {
+                break;
+            }
+            if (move.getType() == MoveType.BUY_CARD) {
+                purchases.add(new int[] { move.getCardId(), view.getCurrentPlayer(), game.getMoveCount() });
+            }
+            try {
+                game.applyMove(move);
+            } catch (IllegalMoveException e) {
+                if (!game.isGameOver()) {
+                    break;
+                }
+            }
+        }
+
+        int moveCount = game.getMoveCount();
+        tally.games++;
+        tally.totalMoves += moveCount;
+        tally.shortestGame = Math.min(tally.shortestGame, moveCount);
+        tally.longestGame = Math.max(tally.longestGame, moveCount);
+        if (!game.isGameOver()) {
+            tally.unfinishedGames++;
+            return;
+        }
+
+        int seat1 = players.get(0).getVictoryPoints();
+        int seat2 = players.get(1).getVictoryPoints();
+        if (seat1 == seat2) {
+            tally.draws++;
+            return;
+        }
+        boolean firstSeatWon = seat1 > seat2;
+        for (int[] purchase : purchases) {
+            SimulationResult.CardStats stats = tally.cards.computeIfAbsent(purchase[0], id -> new SimulationResult.CardStats());
+            stats.purchases++;
+            stats.moveTotal += purchase[2];
+            if ((purchase[1] == 0) == firstSeatWon) {
+                stats.winnerPurchases++;
+            }
+        }
+        if (firstSeatWon) {
+            tally.firstSeatWins++;
+        }
+        if (firstSeatWon != swapSeats) {
+            tally.firstStrategyWins++;
+        } else {
+            tally.secondStrategyWins++;
+        }
+    }
+
+    private static class Tally {
+        long games;
+        long firstStrategyWins;
+        long secondStrategyWins;
+        long draws;
+        long firstSeatWins;
+        long unfinishedGames;
+        long totalMoves;
+        int shortestGame = Integer.MAX_VALUE;
+        int longestGame;
+        final Map<Integer, SimulationResult.CardStats> cards = new HashMap<>();
+
+        void add(Tally other) {
+            games += other.games;
+            firstStrategyWins += other.firstStrategyWins;
+            secondStrategyWins += other.secondStrategyWins;
+            draws += other.draws;
+            firstSeatWins += other.firstSeatWins;
+            unfinishedGames += other.unfinishedGames;
+            totalMoves += other.totalMoves;
+            shortestGame = Math.min(shortestGame, other.shortestGame);
+            longestGame = Math.max(longestGame, other.longestGame);
+            other.cards.forEach((id, stats) -> cards.computeIfAbsent(id, key -> new SimulationResult.CardStats()).add(stats));
+        }
+
+        SimulationResult toResult(long elapsedNanos) {
+            return new SimulationResult(games, firstStrategyWins, secondStrategyWins, draws, firstSeatWins,
+                    unfinishedGames, totalMoves, games == 0 ? 0 : shortestGame, longestGame, cards,
+                    elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package domain;
+
+import datasource.GameStorage;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Moves decoded on demand from a save and its journal, which stay in the
+// storage's buffers (memory-mapped for MappedFileGameStorage). Opening makes
+// one pass to count the moves and remember where every INDEX_INTERVAL-th one
+// starts; after that only a window of WINDOW_SIZE decoded moves is kept, and a
+// miss re-decodes from the nearest indexed move at or before it.
+public class StreamingMoveSource implements MoveSource {
+    private static final int INDEX_INTERVAL = 256;
+    private static final int WINDOW_SIZE = 4 * INDEX_INTERVAL;
+    private static final long JOURNAL_BIT = 1L << 62;
+
+    private final MoveReader snapshot;
+    private final MoveReader journal;
+    private int journalStart;
+    private final int size;
+    // Start of every INDEX_INTERVAL-th move: a byte position, with
+    // JOURNAL_BIT set for moves that live in the journal.
+    private final long[] index;
+    private final PlayerMove[] window = new PlayerMove[WINDOW_SIZE];
+    private int windowStart;
+    private int windowCount;
+
+    public StreamingMoveSource(GameCodec codec, ByteBuffer snapshotData, ByteBuffer journalData) {
+        this.snapshot = codec.readSnapshotMoves(snapshotData);
+        this.journal = codec.readJournalMoves(journalData);
+        int firstJournalMove = codec.readJournalStart(journalData);
+
+        long[] starts = new long[16];
+        int count = 0;
+        for (MoveReader reader : new MoveReader[] { snapshot, journal }) {
+            long segment = reader == journal ? JOURNAL_BIT : 0;
+            if (reader == journal) {
+                // Skip journaled moves that the snapshot already holds.
+                for (int i = GameSaver.journalSkip(firstJournalMove, count); i > 0 && journal.hasNext(); i--) {
+                    journal.next();
+                }
+                journalStart = journal.getPosition();
+            }
+            while (reader.hasNext()) {
+                if (count % INDEX_INTERVAL == 0) {
+                    int entry = count / INDEX_INTERVAL;
+                    if (entry == starts.length) {
+                        starts = Arrays.copyOf(starts, entry * 2);
+                    }
+                    starts[entry] = segment | reader.getPosition();
+                }
+                reader.next();
+                count++;
+            }
+        }
+        this.size = count;
+        this.index = Arrays.copyOf(starts, (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+    }
+
+    public static StreamingMoveSource open(GameStorage storage) {
+        if (!storage.exists()) {
+            return new StreamingMoveSource(new BinaryGameCodec(), ByteBuffer.allocate(0), ByteBuffer.allocate(0));
+        }
+        ByteBuffer data = storage.loadView();
+        if (!data.hasRemaining()) {
+            return new StreamingMoveSource(new BinaryGameCodec(), data, data);
+        }
+        return new StreamingMoveSource(GameSaver.codecFor(data), data, storage.loadJournalView());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PlayerMove get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+        }
+        if (index < windowStart || index >= windowStart + windowCount) {
+            fill(index / INDEX_INTERVAL * INDEX_INTERVAL);
+        }
+        return window[index - windowStart];
+    }
+
+    private void fill(int start) {
+        long entry = index[start / INDEX_INTERVAL];
+        MoveReader reader = (entry & JOURNAL_BIT) != 0 ? journal : snapshot;
+        reader.setPosition((int) (entry & ~JOURNAL_BIT));
+
+        Arrays.fill(window, null);
+        windowStart = start;
+        windowCount = 0;
+        while (windowCount < WINDOW_SIZE && start + windowCount < size) {
+            if (!reader.hasNext()) {
+                reader = journal;
+                reader.setPosition(journalStart);
+                continue;
+            }
+            window[windowCount++] = reader.next();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Perfect-play values for every position with at most maxCards cards left,
+// read straight out of a memory-mapped file. A position is keyed by the set of
+// remaining cards, both players' chips and the side to move. Chips are capped
+// per color at the total cost of the remaining cards in that color, since
+// anything above that can never be spent. Victory points are left out of the
+// key: each entry is the VP margin the side to move can still force, and
+// adding the current lead gives the final result.
+//
+// File layout: header (magic, version, card count, maxCards, then id, VP and
+// five costs per card), one long offset per card mask (-1 when not covered),
+// then one signed byte per position.
+public final class Tablebase {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int MAX_CARDS = 20;
+
+    static final int MAGIC = 0x43435442;
+    static final int VERSION = 1;
+
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final int[] cardIds;
+    private final int[] victoryPoints;
+    private final int[][] costs;
+    private final int maxCards;
+    private final long[] offsets;
+    private final int[][] maskCaps;
+    private final MappedByteBuffer[] segments;
+
+    Tablebase(int[] cardIds, int[] victoryPoints, int[][] costs, int maxCards, long[] offsets,
+            MappedByteBuffer[] segments) {
+        this.cardIds = cardIds;
+        this.victoryPoints = victoryPoints;
+        this.costs = costs;
+        this.maxCards = maxCards;
+        this.offsets = offsets;
+        this.segments = segments;
+        this.maskCaps = new int[offsets.length][];
+        for (int mask = 0; mask < offsets.length; mask++) {
+            if (offsets[mask] >= 0) {
+                maskCaps[mask] = computeCaps(mask);
+            }
+        }
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            ByteBuffer header = segments[0].duplicate();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            int cardCount = header.getInt();
+            int maxCards = header.getInt();
+            if (cardCount < 1 || cardCount > MAX_CARDS) {
+                throw new IOException("Unsupported card count in tablebase: " + cardCount);
+            }
+
+            int[] cardIds = new int[cardCount];
+            int[] victoryPoints = new int[cardCount];
+            int[][] costs = new int[cardCount][COLORS.length];
+            for (int i = 0; i < cardCount; i++) {
+                cardIds[i] = header.getInt();
+                victoryPoints[i] = header.getInt();
+                for (int c = 0; c < COLORS.length; c++) {
+                    costs[i][c] = header.getInt();
+                }
+            }
+            long[] offsets = new long[1 << cardCount];
+            for (int mask = 0; mask < offsets.length; mask++) {
+                offsets[mask] = header.getLong();
+            }
+            return new Tablebase(cardIds, victoryPoints, costs, maxCards, offsets, segments);
+        }
+    }
+
+    static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.max(1, count)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(mode, start, Math.min(size - start, SEGMENT_MASK + 1));
+        }
+        return segments;
+    }
+
+    static int headerSize(int cardCount) {
+        return 4 * Integer.BYTES + cardCount * (2 + COLORS.length) * Integer.BYTES
+                + (Long.BYTES << cardCount);
+    }
+
+    public int getMaxCards() {
+        return maxCards;
+    }
+
+    public int getCardCount() {
+        return cardIds.length;
+    }
+
+    public boolean covers(GameState state, Board deck) {
+        return maskOf(state, deck) >= 0;
+    }
+
+    // Returns the VP margin the side to move can force from here, or UNKNOWN
+    // when the position is mid-turn or outside the table.
+    public int probe(GameState state, Board deck) {
+        if (state.isGameOver()) {
+            return 0;
+        }
+        int mask = maskOf(state, deck);
+        if (mask < 0) {
+            return UNKNOWN;
+        }
+        int[] caps = maskCaps[mask];
+        int mover = state.getCurrentPlayer();
+        long index = playerIndex(caps, state, 0) * playerSpace(caps) + playerIndex(caps, state, 1);
+        return get(offsets[mask] + index * 2 + mover);
+    }
+
+    private int maskOf(GameState state, Board deck) {
+        if (state.getTurnChipCount() != 0) {
+            return -1;
+        }
+        int mask = 0;
+        for (long remaining = state.getAvailableCards(); remaining != 0; remaining &= remaining - 1) {
+            int bit = bitOf(deck.getCardInSlot(Long.numberOfTrailingZeros(remaining)));
+            if (bit < 0) {
+                return -1;
+            }
+            mask |= 1 << bit;
+        }
+        return offsets[mask] >= 0 ? mask : -1;
+    }
+
+    private int bitOf(Card card) {
+        for (int i = 0; i < cardIds.length; i++) {
+            if (cardIds[i] == card.getId()) {
+                if (victoryPoints[i] != card.getVictoryPoints()) {
+                    return -1;
+                }
+                for (int c = 0; c < COLORS.length; c++) {
+                    if (costs[i][c] != card.getCost(c)) {
+                        return -1;
+                    }
+                }
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long playerIndex(int[] caps, GameState state, int player) {
+        long index = 0;
+        for (int c = COLORS.length - 1; c >= 0; c--) {
+            index = index * (caps[c] + 1) + Math.min(state.getChips(player, COLORS[c]), caps[c]);
+        }
+        return index;
+    }
+
+    private int[] computeCaps(int mask) {
+        int[] caps = new int[COLORS.length];
+        for (int i = 0; i < cardIds.length; i++) {
+            if ((mask & 1 << i) != 0) {
+                for (int c = 0; c < COLORS.length; c++) {
+                    caps[c] += costs[i][c];
+                }
+            }
+        }
+        return caps;
+    }
+
+    int[] getCaps(int mask) {
+        return maskCaps[mask];
+    }
+
+    long getOffset(int mask) {
+        return offsets[mask];
+    }
+
+    int getVictoryPoints(int card) {
+        return victoryPoints[card];
+    }
+
+    int getCost(int card, int color) {
+        return costs[card][color];
+    }
+
+    // Chips are indexed in mixed radix with color 0 least significant, so
+    // taking chips always moves a position to a higher index.
+    static long playerIndex(int[] caps, int[] chips) {
+        long index = 0;
+        for (int c = COLORS.length - 1; c >= 0; c--) {
+            index = index * (caps[c] + 1) + chips[c];
+        }
+        return index;
+    }
+
+    static long playerSpace(int[] caps) {
+        long space = 1;
+        for (int cap : caps) {
+            space *= cap + 1;
+        }
+        return space;
+    }
+
+    byte get(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+    }
+
+    void put(long position, byte value) {
+        segments[(int) (position >>> SEGMENT_BITS)].put((int) (position & SEGMENT_MASK), value);
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
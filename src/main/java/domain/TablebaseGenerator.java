@@ -0,0 +1,269 @@
+package domain;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+// Builds a Tablebase backward from the end of the game. Buying only ever
+// removes cards, so card sets are solved in order of size, and all sets of
+// one size are independent of each other and run in parallel. Within a card
+// set, taking chips only moves to a higher chip index, so positions are solved
+// from the highest index down. The one exception is a take that changes
+// nothing because every chosen color is already capped; that just hands the
+// same position to the opponent, and both sides of it are resolved together.
+// A game in which both players keep passing forever scores 0.
+//
+// Results are written into the mapped output file as they are produced, so
+// the heap only ever holds one card set's scratch arrays per thread.
+public class TablebaseGenerator {
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final int NO_MOVE = Integer.MIN_VALUE / 2;
+    private static final int[][] TAKES = createTakes();
+
+    private final Board deck;
+    private final int maxCards;
+    private final int threads;
+
+    public TablebaseGenerator(Board deck, int maxCards, int threads) {
+        if (deck.getSlotCount() > Tablebase.MAX_CARDS) {
+            throw new IllegalArgumentException("Tablebases support at most " + Tablebase.MAX_CARDS + " cards");
+        }
+        this.deck = deck;
+        this.maxCards = Math.min(maxCards, deck.getSlotCount());
+        this.threads = threads;
+    }
+
+    private static int[][] createTakes() {
+        List<int[]> takes = new ArrayList<>();
+        for (int c = 0; c < COLORS.length; c++) {
+            int[] take = new int[COLORS.length];
+            take[c] = 2;
+            takes.add(take);
+        }
+        for (int c1 = 0; c1 < COLORS.length; c1++) {
+            for (int c2 = c1 + 1; c2 < COLORS.length; c2++) {
+                for (int c3 = c2 + 1; c3 < COLORS.length; c3++) {
+                    int[] take = new int[COLORS.length];
+                    take[c1] = take[c2] = take[c3] = 1;
+                    takes.add(take);
+                }
+            }
+        }
+        return takes.toArray(new int[0][]);
+    }
+
+    public Tablebase generate(Path path) throws IOException {
+        int cardCount = deck.getSlotCount();
+        int[] cardIds = new int[cardCount];
+        int[] victoryPoints = new int[cardCount];
+        int[][] costs = new int[cardCount][COLORS.length];
+        for (int i = 0; i < cardCount; i++) {
+            Card card = deck.getCardInSlot(i);
+            cardIds[i] = card.getId();
+            victoryPoints[i] = card.getVictoryPoints();
+            for (int c = 0; c < COLORS.length; c++) {
+                costs[i][c] = card.getCost(c);
+            }
+        }
+
+        long[] offsets = new long[1 << cardCount];
+        long size = Tablebase.headerSize(cardCount);
+        for (int mask = 0; mask < offsets.length; mask++) {
+            int cards = Integer.bitCount(mask);
+            if (cards == 0 || cards > maxCards) {
+                offsets[mask] = -1;
+                continue;
+            }
+            offsets[mask] = size;
+            long space = 1;
+            for (int c = 0; c < COLORS.length; c++) {
+                int cap = 0;
+                for (int i = 0; i < cardCount; i++) {
+                    if ((mask & 1 << i) != 0) {
+                        cap += costs[i][c];
+                    }
+                }
+                space *= cap + 1;
+            }
+            size += space * space * 2;
+        }
+
+        Files.deleteIfExists(path);
+        MappedByteBuffer[] segments;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size);
+            FileChannel channel = file.getChannel();
+            segments = Tablebase.map(channel, FileChannel.MapMode.READ_WRITE, size);
+        }
+
+        ByteBuffer header = segments[0].duplicate();
+        header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION).putInt(cardCount).putInt(maxCards);
+        for (int i = 0; i < cardCount; i++) {
+            header.putInt(cardIds[i]).putInt(victoryPoints[i]);
+            for (int c = 0; c < COLORS.length; c++) {
+                header.putInt(costs[i][c]);
+            }
+        }
+        for (long offset : offsets) {
+            header.putLong(offset);
+        }
+
+        Tablebase tablebase = new Tablebase(cardIds, victoryPoints, costs, maxCards, offsets, segments);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int cards = 1; cards <= maxCards; cards++) {
+                List<Integer> masks = new ArrayList<>();
+                for (int mask = 1; mask < offsets.length; mask++) {
+                    if (Integer.bitCount(mask) == cards) {
+                        masks.add(mask);
+                    }
+                }
+                pool.submit(() -> masks.parallelStream().forEach(mask -> solve(tablebase, mask))).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Tablebase generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Tablebase generation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        tablebase.force();
+        return tablebase;
+    }
+
+    private void solve(Tablebase tablebase, int mask) {
+        int[] caps = tablebase.getCaps(mask);
+        long space = Tablebase.playerSpace(caps);
+        long base = tablebase.getOffset(mask);
+        int[][] chips = new int[2][COLORS.length];
+        int[] scratch = new int[COLORS.length];
+        int[] childChips = new int[COLORS.length];
+        boolean[] canPass = new boolean[2];
+
+        for (long index = space * space - 1; index >= 0; index--) {
+            decode(index / space, caps, chips[0]);
+            decode(index % space, caps, chips[1]);
+
+            int a = bestMove(tablebase, mask, caps, chips, 0, scratch, childChips, canPass);
+            int b = bestMove(tablebase, mask, caps, chips, 1, scratch, childChips, canPass);
+
+            // a and b are each side's best move that changes the position,
+            // from that side's point of view.
+            int value0;
+            int value1;
+            if (canPass[0] && canPass[1]) {
+                if (a >= -b) {
+                    value0 = a;
+                    value1 = b;
+                } else {
+                    value0 = Math.min(Math.max(0, a), -b);
+                    value1 = -value0;
+                }
+            } else if (canPass[0]) {
+                value0 = Math.max(a, -b);
+                value1 = b;
+            } else if (canPass[1]) {
+                value0 = a;
+                value1 = Math.max(b, -a);
+            } else {
+                value0 = a;
+                value1 = b;
+            }
+            tablebase.put(base + index * 2, (byte) value0);
+            tablebase.put(base + index * 2 + 1, (byte) value1);
+        }
+    }
+
+    private int bestMove(Tablebase tablebase, int mask, int[] caps, int[][] chips, int mover, int[] scratch,
+            int[] childChips, boolean[] canPass) {
+        int[] own = chips[mover];
+        int[] other = chips[mover ^ 1];
+        int best = NO_MOVE;
+        canPass[mover] = false;
+
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            int card = Integer.numberOfTrailingZeros(remaining);
+            boolean affordable = true;
+            for (int c = 0; c < COLORS.length && affordable; c++) {
+                affordable = own[c] >= tablebase.getCost(card, c);
+            }
+            if (!affordable) {
+                continue;
+            }
+            int gain = tablebase.getVictoryPoints(card);
+            int child = mask & ~(1 << card);
+            if (child == 0) {
+                best = Math.max(best, gain);
+                continue;
+            }
+            int[] childCaps = tablebase.getCaps(child);
+            for (int c = 0; c < COLORS.length; c++) {
+                childChips[c] = Math.min(own[c] - tablebase.getCost(card, c), childCaps[c]);
+                scratch[c] = Math.min(other[c], childCaps[c]);
+            }
+            best = Math.max(best, gain - value(tablebase, child, childCaps, childChips, scratch, mover));
+        }
+
+        for (int[] take : TAKES) {
+            boolean changed = false;
+            for (int c = 0; c < COLORS.length; c++) {
+                childChips[c] = Math.min(own[c] + take[c], caps[c]);
+                changed |= childChips[c] != own[c];
+            }
+            if (!changed) {
+                canPass[mover] = true;
+                continue;
+            }
+            best = Math.max(best, -value(tablebase, mask, caps, childChips, other, mover));
+        }
+        return best;
+    }
+
+    // Value for the opponent of mover, who is to move after mover's chips
+    // become moverChips.
+    private static int value(Tablebase tablebase, int mask, int[] caps, int[] moverChips, int[] otherChips,
+            int mover) {
+        long space = Tablebase.playerSpace(caps);
+        long index = mover == 0
+                ? Tablebase.playerIndex(caps, moverChips) * space + Tablebase.playerIndex(caps, otherChips)
+                : Tablebase.playerIndex(caps, otherChips) * space + Tablebase.playerIndex(caps, moverChips);
+        return tablebase.get(tablebase.getOffset(mask) + index * 2 + (mover ^ 1));
+    }
+
+    private static void decode(long index, int[] caps, int[] chips) {
+        for (int c = 0; c < COLORS.length; c++) {
+            chips[c] = (int) (index % (caps[c] + 1));
+            index /= caps[c] + 1;
+        }
+    }
+
+    public static long countPositions(Board deck, int maxCards) {
+        int cardCount = deck.getSlotCount();
+        long total = 0;
+        for (int mask = 1; mask < 1 << cardCount; mask++) {
+            if (Integer.bitCount(mask) > maxCards) {
+                continue;
+            }
+            int[] caps = new int[COLORS.length];
+            for (int i = 0; i < cardCount; i++) {
+                if ((mask & 1 << i) != 0) {
+                    for (int c = 0; c < COLORS.length; c++) {
+                        caps[c] += deck.getCardInSlot(i).getCost(c);
+                    }
+                }
+            }
+            long space = Tablebase.playerSpace(caps);
+            total += space * space * 2;
+        }
+        return total;
+    }
+}
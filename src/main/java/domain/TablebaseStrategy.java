@@ -0,0 +1,48 @@
+package domain;
+
+// Plays perfectly once few enough cards are left for the tablebase to cover
+// the position, and defers to another strategy until then.
+public class TablebaseStrategy implements PlayerStrategy {
+    private final Tablebase tablebase;
+    private final PlayerStrategy fallback;
+
+    public TablebaseStrategy(Tablebase tablebase) {
+        this(tablebase, new AlphaBetaStrategy());
+    }
+
+    public TablebaseStrategy(Tablebase tablebase, PlayerStrategy fallback) {
+        this.tablebase = tablebase;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public PlayerMove chooseMove(GameViewState view) {
+        Board deck = new Board(view.getCards());
+        GameState state = GameState.fromView(view, deck);
+        if (!tablebase.covers(state, deck)) {
+            return fallback.chooseMove(view);
+        }
+
+        int[] moves = new int[GameState.MAX_LEGAL_MOVES];
+        int count = state.legalMoves(deck, moves);
+        int mover = state.getCurrentPlayer();
+        int best = Integer.MIN_VALUE;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            GameState child = state.apply(deck, moves[i]);
+            int value = child.getVictoryPoints(mover) - state.getVictoryPoints(mover);
+            if (!child.isGameOver()) {
+                int reply = tablebase.probe(child, deck);
+                if (reply == Tablebase.UNKNOWN) {
+                    return fallback.chooseMove(view);
+                }
+                value -= reply;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove < 0 ? fallback.chooseMove(view) : PackedMove.toPlayerMove(bestMove, deck);
+    }
+}
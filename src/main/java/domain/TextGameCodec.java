@@ -0,0 +1,372 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TextGameCodec implements GameCodec {
+    private static final ChipColor[] COLORS = ChipColor.values();
+    private static final MoveType[] MOVE_TYPES = MoveType.values();
+    private static final byte[] CHIPS = "CHIPS".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOVES = "MOVES".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JOURNAL = "JOURNAL|".getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public boolean canDecode(ByteBuffer data) {
+        if (!data.hasRemaining()) {
+            return false;
+        }
+        byte first = data.get(data.position());
+        return first >= '0' && first <= '9';
+    }
+
+    @Override
+    public byte[] encodeGame(Game game) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(game.getCurrentPlayerIndex()).append("\n");
+
+        for (Player player : game.getPlayers()) {
+            sb.append(player.getName()).append("|");
+            sb.append(player.getVictoryPoints()).append("|");
+            for (ChipColor color : ChipColor.values()) {
+                sb.append(color.name()).append(":").append(player.getChipCount(color)).append(",");
+            }
+            sb.append("\n");
+        }
+
+        for (Card card : game.getBoard().getCards()) {
+            sb.append(card.getId()).append("|");
+            sb.append(card.getVictoryPoints()).append("|");
+            for (ChipColor color : COLORS) {
+                int count = card.getCost(color);
+                if (count > 0) {
+                    sb.append(color.name()).append(":").append(count).append(",");
+                }
+            }
+            sb.append("\n");
+        }
+
+        sb.append("CHIPS\n");
+        for (ChipColor color : game.getCurrentTurnChips()) {
+            sb.append(color.name()).append(",");
+        }
+        sb.append("\n");
+
+        sb.append("MOVES\n");
+        int moveCount = game.getMoveCount();
+        for (int i = 0; i < moveCount; i++) {
+            appendMove(sb, game.getMove(i));
+        }
+
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] encodeMoves(Game game, int fromIndex, int toIndex) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = fromIndex; i < toIndex; i++) {
+            appendMove(sb, game.getMove(i));
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendMove(StringBuilder sb, PlayerMove move) {
+        sb.append(move.getType().name()).append("|");
+        sb.append(move.getCardId()).append("|");
+        for (ChipColor color : move.getColors()) {
+            sb.append(color.name()).append(",");
+        }
+        sb.append("\n");
+    }
+
+    @Override
+    public void decodeGame(ByteBuffer data, Game game) {
+        TextCursor in = new TextCursor(data);
+
+        int currentPlayerIndex = in.readInt();
+        in.expect('\n');
+
+        for (int i = 0; i < 2; i++) {
+            Player player = game.getPlayers().get(i);
+            player.reset();
+
+            in.skipPast('|');
+            player.addVictoryPoints(in.readInt());
+            in.expect('|');
+            while (!in.atEndOfLine()) {
+                ChipColor color = in.readToken(COLORS);
+                in.expect(':');
+                player.takeChip(color, in.readInt());
+                in.expect(',');
+            }
+            in.expect('\n');
+        }
+
+        List<Card> cards = new ArrayList<>();
+        while (in.hasRemaining() && !in.matchLine(CHIPS)) {
+            int id = in.readInt();
+            in.expect('|');
+            int vp = in.readInt();
+            in.expect('|');
+
+            int[] cost = new int[COLORS.length];
+            while (!in.atEndOfLine()) {
+                ChipColor color = in.readToken(COLORS);
+                in.expect(':');
+                cost[color.ordinal()] = in.readInt();
+                in.expect(',');
+            }
+            in.expect('\n');
+
+            cards.add(new Card(id, cost, vp));
+        }
+
+        List<ChipColor> turnChips = new ArrayList<>();
+        while (in.hasRemaining() && !in.atEndOfLine()) {
+            turnChips.add(in.readToken(COLORS));
+            in.expect(',');
+        }
+        if (in.hasRemaining()) {
+            in.expect('\n');
+        }
+
+        if (in.hasRemaining() && in.matchLine(MOVES)) {
+            while (in.hasRemaining() && !in.atEndOfLine()) {
+                game.addMove(readMove(in));
+            }
+        }
+
+        game.setState(new Board(cards), currentPlayerIndex, turnChips);
+    }
+
+    @Override
+    public byte[] encodeJournalHeader(int firstMoveIndex) {
+        return ("JOURNAL|" + firstMoveIndex + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int readJournalStart(ByteBuffer data) {
+        TextCursor in = new TextCursor(data);
+        return in.matchPrefix(JOURNAL) ? in.readInt() : -1;
+    }
+
+    private static TextCursor skipJournalHeader(ByteBuffer data) {
+        TextCursor in = new TextCursor(data);
+        if (in.matchPrefix(JOURNAL)) {
+            in.skipLine();
+        }
+        return in;
+    }
+
+    @Override
+    public List<PlayerMove> decodeMoves(ByteBuffer data) {
+        TextCursor in = skipJournalHeader(data);
+        List<PlayerMove> moves = new ArrayList<>();
+        while (in.hasRemaining()) {
+            if (in.atEndOfLine()) {
+                in.expect('\n');
+            } else {
+                moves.add(readMove(in));
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public MoveReader readSnapshotMoves(ByteBuffer data) {
+        TextCursor in = new TextCursor(data);
+        while (in.hasRemaining() && !in.matchLine(MOVES)) {
+            in.skipLine();
+        }
+        return new Reader(in);
+    }
+
+    @Override
+    public MoveReader readJournalMoves(ByteBuffer data) {
+        return new Reader(skipJournalHeader(data));
+    }
+
+    private class Reader implements MoveReader {
+        private final TextCursor in;
+
+        Reader(TextCursor in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (in.hasRemaining() && in.atEndOfLine()) {
+                in.expect('\n');
+            }
+            return in.hasRemaining();
+        }
+
+        @Override
+        public PlayerMove next() {
+            hasNext();
+            return readMove(in);
+        }
+
+        @Override
+        public int getPosition() {
+            return in.getPosition();
+        }
+
+        @Override
+        public void setPosition(int position) {
+            in.setPosition(position);
+        }
+    }
+
+    private PlayerMove readMove(TextCursor in) {
+        MoveType type = in.readToken(MOVE_TYPES);
+        in.expect('|');
+        int cardId = in.readInt();
+        in.expect('|');
+
+        List<ChipColor> colors = new ArrayList<>(3);
+        while (!in.atEndOfLine()) {
+            colors.add(in.readToken(COLORS));
+            in.expect(',');
+        }
+        if (in.hasRemaining()) {
+            in.expect('\n');
+        }
+        return new PlayerMove(type, cardId, colors);
+    }
+
+    // Reads the save straight out of the buffer (which may be memory-mapped)
+    // so loading never builds a String or an array of lines.
+    private static class TextCursor {
+        private final ByteBuffer data;
+        private int position;
+        private final int limit;
+
+        TextCursor(ByteBuffer data) {
+            this.data = data;
+            this.position = data.position();
+            this.limit = data.limit();
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        int getPosition() {
+            return position;
+        }
+
+        void setPosition(int position) {
+            this.position = position;
+        }
+
+        void skipLine() {
+            while (position < limit && data.get(position) != '\n') {
+                position++;
+            }
+            position = Math.min(position + 1, limit);
+        }
+
+        boolean atEndOfLine() {
+            return position >= limit || data.get(position) == '\n';
+        }
+
+        void expect(char c) {
+            if (position >= limit || data.get(position) != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at byte " + position);
+            }
+            position++;
+        }
+
+        void skipPast(char c) {
+            while (position < limit && data.get(position) != c) {
+                position++;
+            }
+            expect(c);
+        }
+
+        int readInt() {
+            boolean negative = false;
+            if (position < limit && data.get(position) == '-') {
+                negative = true;
+                position++;
+            }
+            int start = position;
+            int value = 0;
+            while (position < limit) {
+                int digit = data.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                position++;
+            }
+            if (position == start) {
+                throw new IllegalArgumentException("Expected a number at byte " + start);
+            }
+            return negative ? -value : value;
+        }
+
+        boolean matchPrefix(byte[] prefix) {
+            if (position + prefix.length > limit) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (data.get(position + i) != prefix[i]) {
+                    return false;
+                }
+            }
+            position += prefix.length;
+            return true;
+        }
+
+        boolean matchLine(byte[] line) {
+            if (position + line.length > limit) {
+                return false;
+            }
+            for (int i = 0; i < line.length; i++) {
+                if (data.get(position + i) != line[i]) {
+                    return false;
+                }
+            }
+            int end = position + line.length;
+            if (end < limit && data.get(end) != '\n') {
+                return false;
+            }
+            position = Math.min(end + 1, limit);
+            return true;
+        }
+
+        <E extends Enum<E>> E readToken(E[] candidates) {
+            int start = position;
+            while (position < limit) {
+                byte b = data.get(position);
+                if (b < 'A' || b > 'Z') {
+                    if (b != '_') {
+                        break;
+                    }
+                }
+                position++;
+            }
+            int length = position - start;
+            for (E candidate : candidates) {
+                String name = candidate.name();
+                if (name.length() == length && regionMatches(start, name)) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unknown token at byte " + start);
+        }
+
+        private boolean regionMatches(int start, String name) {
+            for (int i = 0; i < name.length(); i++) {
+                if (data.get(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
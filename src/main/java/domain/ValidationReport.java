@@ -0,0 +1,119 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class ValidationReport {
+    public enum Status {
+        VALID, CORRUPT, INCONSISTENT
+    }
+
+    private final long files;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final List<Problem> problems;
+
+    ValidationReport(long files, long bytes, long elapsedNanos, List<Problem> problems) {
+        this.files = files;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.problems = Collections.unmodifiableList(problems);
+    }
+
+    public long getFiles() {
+        return files;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    public long count(Status status) {
+        if (status == Status.VALID) {
+            return files - problems.size();
+        }
+        return problems.stream().filter(problem -> problem.getStatus() == status).count();
+    }
+
+    public double getFilesPerSecond() {
+        return elapsedNanos == 0 ? 0 : files * 1e9 / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos / (1 << 20);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Problem problem : problems) {
+            sb.append(String.format("%-12s %s: %s%n", problem.getStatus(), problem.getSource(), problem.getDetail()));
+        }
+        sb.append(String.format("%d files: %d valid, %d corrupt, %d inconsistent%n", files, count(Status.VALID),
+                count(Status.CORRUPT), count(Status.INCONSISTENT)));
+        sb.append(String.format("%.1f files/s, %.1f MB/s (%.2f s)", getFilesPerSecond(), getMegabytesPerSecond(),
+                elapsedNanos / 1e9));
+        return sb.toString();
+    }
+
+    public static class Problem {
+        private final String source;
+        private final Status status;
+        private final String detail;
+
+        Problem(String source, Status status, String detail) {
+            this.source = source;
+            this.status = status;
+            this.detail = detail;
+        }
+
+        // The save file, or the backup, that has the problem.
+        public String getSource() {
+            return source;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+    }
+
+    // Per-worker counts, merged once the run is over.
+    static class Tally {
+        private long files;
+        private long bytes;
+        private final List<Problem> problems = new ArrayList<>();
+
+        void add(String source, long size, Status status, String detail) {
+            files++;
+            bytes += size;
+            if (status != Status.VALID) {
+                problems.add(new Problem(source, status, detail));
+            }
+        }
+
+        void add(Tally other) {
+            files += other.files;
+            bytes += other.bytes;
+            problems.addAll(other.problems);
+        }
+
+        ValidationReport toReport(long elapsedNanos) {
+            problems.sort(Comparator.comparing(Problem::getSource));
+            return new ValidationReport(files, bytes, elapsedNanos, problems);
+        }
+    }
+}
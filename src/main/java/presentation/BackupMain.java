@@ -0,0 +1,44 @@
+package presentation;
+
+import datasource.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Lists the backups in a BackupStore or restores one over a save file:
+//   BackupMain <dir> list
+//   BackupMain <dir> restore <id> <save file>
+public class BackupMain {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BackupMain <dir> list | restore <id> <save file>");
+            System.exit(2);
+        }
+        BackupStore store = BackupStore.open(Paths.get(args[0]), RetentionPolicy.keepAll());
+
+        switch (args[1]) {
+            case "list":
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                for (BackupStore.Entry entry : store.list()) {
+                    System.out.printf("%6d  %s  %8d bytes  %8d journal  %3d chunks  %s%n", entry.getId(),
+                            format.format(new Date(entry.getTimestamp())), entry.getSaveSize(),
+                            entry.getJournalSize(), entry.getChunkCount(), entry.getSource());
+                }
+                System.out.printf("%d backups, %d distinct chunks%n", store.size(), store.getChunkCount());
+                break;
+            case "restore":
+                if (args.length < 4) {
+                    System.err.println("Usage: BackupMain <dir> restore <id> <save file>");
+                    System.exit(2);
+                }
+                long id = Long.parseLong(args[2]);
+                store.restore(id, new FileGameStorage(args[3]));
+                System.out.println("Restored backup " + id + " to " + args[3]);
+                break;
+            default:
+                System.err.println("Unknown command: " + args[1]);
+                System.exit(2);
+        }
+    }
+}
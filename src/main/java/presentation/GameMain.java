@@ -2,9 +2,19 @@ package presentation;
 
 import domain.*;
 import datasource.*;
+import java.io.IOException;
+import java.nio.file.*;
 import java.util.*;
 
 public class GameMain {
+    private static final String SAVE_FILE = "gamesave.sav";
+    private static final String LEGACY_SAVE_FILE = "gamesave.txt";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final int SNAPSHOT_INTERVAL = 64;
+    private static final int EVENT_RING_SIZE = 1024;
+    private static final String BACKUP_DIRECTORY = "backups";
+    private static final int BACKUPS_KEPT = 50;
+
     private GameUI ui;
     private GameController controller;
 
@@ -13,19 +23,61 @@ public class GameMain {
     }
 
     public GameMain() {
-        GameStorage storage = new FileGameStorage("gamesave.txt");
+        migrateLegacySave();
+        WriteBehindGameStorage storage = new WriteBehindGameStorage(new FileGameStorage(SAVE_FILE, openBackups()));
 
         Player player1 = new Player("Player 1", new HumanClickStrategy());
         Player player2 = new Player("Player 2", new HumanClickStrategy());
         List<Player> players = Arrays.asList(player1, player2);
 
         Board board = new Board();
-        GameSaver saver = new GameSaver(storage);
+        GameSaver saver = new GameSaver(storage, new BinaryGameCodec(), SNAPSHOT_INTERVAL);
+
+        // Saving happens on a ring consumer, so the game itself has no saver.
+        Game game = new Game(board, players, null);
+        saver.loadGame(game);
 
-        Game game = new Game(board, players, saver);
-        game.loadIfExists();
+        MoveEventRing events = new MoveEventRing(EVENT_RING_SIZE);
+        events.addConsumer("saver", new GameSaverConsumer(game, saver));
 
         controller = new GameController(game);
         ui = new GameUI(controller, game);
+
+        events.addConsumer("ui", ui::onMoveEvent);
+        events.start();
+        game.setEventRing(events);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            events.close();
+            storage.close();
+        }, "game-shutdown"));
+    }
+
+    // Saves used to be written to gamesave.txt whatever their format. The
+    // codec is detected from the contents, so the file only needs renaming.
+    private static void migrateLegacySave() {
+        Path save = Paths.get(SAVE_FILE);
+        Path legacy = Paths.get(LEGACY_SAVE_FILE);
+        if (Files.exists(save) || !Files.exists(legacy)) {
+            return;
+        }
+        try {
+            Path legacyJournal = Paths.get(LEGACY_SAVE_FILE + JOURNAL_SUFFIX);
+            if (Files.exists(legacyJournal)) {
+                Files.move(legacyJournal, Paths.get(SAVE_FILE + JOURNAL_SUFFIX));
+            }
+            Files.move(legacy, save);
+        } catch (IOException e) {
+            System.err.println("Error renaming " + LEGACY_SAVE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static BackupStore openBackups() {
+        try {
+            return BackupStore.open(Paths.get(BACKUP_DIRECTORY), RetentionPolicy.keepLast(BACKUPS_KEPT));
+        } catch (IOException e) {
+            System.err.println("Error opening backup store: " + e.getMessage());
+            return null;
+        }
     }
 }
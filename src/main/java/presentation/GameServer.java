@@ -0,0 +1,194 @@
+package presentation;
+
+import domain.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+// Line-based TCP front end for a GameSessionManager. A connection opens a
+// session with "OPEN <id>" and then sends moves; every request gets exactly
+// one reply line, "OK <state>" or "ERR <message>", and a request that fails
+// in any way gets an ERR without closing the connection. Several connections
+// may share a session, and the session's executor keeps its Game
+// single-threaded.
+//
+// Commands: OPEN id, CHIP color, TAKE2 color, TAKE3 c1 c2 c3, BUY cardId,
+// UNDO, REDO, NEW, STATE, QUIT.
+public class GameServer implements AutoCloseable {
+    private final GameSessionManager sessions;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Thread acceptThread;
+
+    public GameServer(GameSessionManager sessions, int port) throws IOException {
+        this.sessions = sessions;
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "game-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptThread = new Thread(this::acceptLoop, "game-server-accept");
+    }
+
+    public void start() {
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String sessionId = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                String command = parts[0].toUpperCase();
+                String reply;
+                if (command.equals("QUIT")) {
+                    out.write("OK bye\n");
+                    out.flush();
+                    return;
+                } else if (command.equals("OPEN")) {
+                    sessionId = parts.length == 2 ? parts[1] : null;
+                    reply = sessionId == null ? "ERR usage: OPEN <id>" : request(sessionId, GameServer::describe);
+                    if (reply.startsWith("ERR")) {
+                        sessionId = null;
+                    }
+                } else if (sessionId == null) {
+                    reply = "ERR no session, send OPEN <id> first";
+                } else {
+                    reply = request(sessionId, game -> execute(game, command, parts));
+                }
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection closed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Looks the session up on every request, so one evicted while idle is
+    // loaded again instead of failing.
+    private String request(String sessionId, Function<Game, String> task)
+            throws InterruptedException {
+        try {
+            return sessions.open(sessionId).submit(task).get();
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return "ERR internal error: " + e.getCause();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return "ERR internal error: " + e;
+        }
+    }
+
+    // Runs on the session's executor.
+    private static String execute(Game game, String command, String[] parts) {
+        try {
+            switch (command) {
+                case "CHIP":
+                    game.takeChipIncremental(ChipColor.valueOf(parts[1].toUpperCase()));
+                    break;
+                case "TAKE2":
+                    game.takeTwo(ChipColor.valueOf(parts[1].toUpperCase()));
+                    break;
+                case "TAKE3":
+                    game.takeThree(ChipColor.valueOf(parts[1].toUpperCase()),
+                            ChipColor.valueOf(parts[2].toUpperCase()),
+                            ChipColor.valueOf(parts[3].toUpperCase()));
+                    break;
+                case "BUY":
+                    game.buyCard(Integer.parseInt(parts[1]));
+                    break;
+                case "UNDO":
+                    if (!game.undo()) {
+                        return "ERR nothing to undo";
+                    }
+                    break;
+                case "REDO":
+                    if (!game.redo()) {
+                        return "ERR nothing to redo";
+                    }
+                    break;
+                case "NEW":
+                    game.startNewGame();
+                    break;
+                case "STATE":
+                    break;
+                default:
+                    return "ERR unknown command " + command;
+            }
+        } catch (IllegalMoveException e) {
+            // The winning buy is applied and then reported as an exception.
+            if (!game.isGameOver()) {
+                return "ERR " + e.getMessage();
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return "ERR bad arguments for " + command;
+        }
+        return describe(game);
+    }
+
+    private static String describe(Game game) {
+        GameViewState view = game.getViewState();
+        StringBuilder sb = new StringBuilder("OK player=").append(view.getCurrentPlayer())
+                .append(" vp=").append(view.getP1VP()).append(',').append(view.getP2VP())
+                .append(" chips=");
+        appendChips(sb, view.getP1Chips());
+        sb.append(';');
+        appendChips(sb, view.getP2Chips());
+        sb.append(" turn=");
+        for (ChipColor color : view.getCurrentTurnChips()) {
+            sb.append(color.name().charAt(0));
+        }
+        sb.append(" cards=");
+        for (int i = 0; i < view.getCards().size(); i++) {
+            sb.append(i == 0 ? "" : ",").append(view.getCards().get(i).getId());
+        }
+        return sb.append(" moves=").append(game.getMoveCount())
+                .append(" over=").append(game.isGameOver()).toString();
+    }
+
+    private static void appendChips(StringBuilder sb, Map<ChipColor, Integer> chips) {
+        for (ChipColor color : ChipColor.values()) {
+            sb.append(color == ChipColor.values()[0] ? "" : ",").append(chips.getOrDefault(color, 0));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        connections.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package presentation;
+
+import domain.*;
+import datasource.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+public class GameServerMain {
+    private static final int DEFAULT_PORT = 7374;
+    private static final int SNAPSHOT_INTERVAL = 64;
+    private static final int BACKUPS_KEPT = 20;
+    private static final long IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path directory = Paths.get(args.length > 1 ? args[1] : "sessions");
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Files.createDirectories(directory);
+        // One store for every session, so games with the same opening share
+        // chunks; each session keeps its own last BACKUPS_KEPT backups.
+        BackupStore backups = BackupStore.open(directory.resolve("backups"), RetentionPolicy.keepLast(BACKUPS_KEPT));
+
+        GameSessionManager sessions = new GameSessionManager(
+                id -> new FileGameStorage(directory.resolve(id + ".sav").toString(), backups), SNAPSHOT_INTERVAL,
+                workers, IDLE_TIMEOUT_MILLIS);
+        GameServer server = new GameServer(sessions, port);
+        server.start();
+        System.out.println("Game server listening on port " + server.getPort() + ", saving to " + directory);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            sessions.close();
+        }, "game-server-shutdown"));
+    }
+}
@@ -9,6 +9,7 @@ import datasource.GameStorage;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class GameUI extends JFrame {
     private final GameController controller;
@@ -19,6 +20,10 @@ public class GameUI extends JFrame {
     private JLabel currentPlayerLabel;
     private JLabel errorLabel;
     private Map<ChipColor, JButton> chipButtons;
+    private final Map<Integer, CardView> cardViews = new HashMap<>();
+    private List<Card> renderedCards;
+    private int renderCount;
+    private final AtomicBoolean renderQueued = new AtomicBoolean();
 
     public GameUI(GameController controller, Game game) {
         this.controller = controller;
@@ -64,6 +69,16 @@ public class GameUI extends JFrame {
             chipPanel.add(btn);
         }
 
+        JButton undoBtn = new JButton("Undo");
+        undoBtn.setPreferredSize(new Dimension(100, 40));
+        undoBtn.addActionListener(e -> onUndoClicked());
+        chipPanel.add(undoBtn);
+
+        JButton redoBtn = new JButton("Redo");
+        redoBtn.setPreferredSize(new Dimension(100, 40));
+        redoBtn.addActionListener(e -> onRedoClicked());
+        chipPanel.add(redoBtn);
+
         JButton newGameBtn = new JButton("New Game");
         newGameBtn.setPreferredSize(new Dimension(120, 40));
         newGameBtn.addActionListener(e -> onNewGameClicked());
@@ -93,6 +108,17 @@ public class GameUI extends JFrame {
         setVisible(true);
     }
 
+    // MoveEventRing consumer: at most one render is queued on the event thread
+    // per batch, however many moves the batch held.
+    public void onMoveEvent(MoveEvent event, long sequence, boolean endOfBatch) {
+        if (endOfBatch && renderQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                renderQueued.set(false);
+                render(controller.getViewState());
+            });
+        }
+    }
+
     private void onLoadGame() {
         JFileChooser fileChooser = new JFileChooser();
         int result = fileChooser.showOpenDialog(this);
@@ -132,43 +158,104 @@ public class GameUI extends JFrame {
         }
     }
 
+    // Only touches what differs from the last render. Card panels are kept per
+    // card id; the board hands out the same list until it changes, so chip
+    // clicks skip the cards entirely, and the cards panel is only laid out
+    // again when a card is added, removed or moved.
     public void render(GameViewState state) {
-        currentPlayerLabel.setText("Current Player: " + (state.getCurrentPlayer() + 1));
+        setText(currentPlayerLabel, "Current Player: " + (state.getCurrentPlayer() + 1));
+
+        setText(player1Label, "Player 1 - VP: " + state.getP1VP() + " | Chips: " + formatChips(state.getP1Chips()));
+        setText(player2Label, "Player 2 - VP: " + state.getP2VP() + " | Chips: " + formatChips(state.getP2Chips()));
+
+        if (state.getCards() != renderedCards) {
+            renderCards(state.getCards());
+        }
+
+        showError(state.getErrorMessage());
+    }
+
+    private void renderCards(List<Card> cards) {
+        renderCount++;
+        for (Card card : cards) {
+            CardView view = cardViews.get(card.getId());
+            if (view == null) {
+                view = new CardView(card.getId());
+                cardViews.put(card.getId(), view);
+            }
+            view.update(card);
+            view.renderedIn = renderCount;
+        }
+
+        boolean structureChanged = false;
+        Iterator<CardView> views = cardViews.values().iterator();
+        while (views.hasNext()) {
+            CardView view = views.next();
+            if (view.renderedIn != renderCount) {
+                cardsPanel.remove(view.panel);
+                views.remove();
+                structureChanged = true;
+            }
+        }
+
+        for (int i = 0; i < cards.size(); i++) {
+            JPanel panel = cardViews.get(cards.get(i).getId()).panel;
+            if (i >= cardsPanel.getComponentCount() || cardsPanel.getComponent(i) != panel) {
+                cardsPanel.add(panel, i);
+                structureChanged = true;
+            }
+        }
+
+        if (structureChanged) {
+            cardsPanel.revalidate();
+            cardsPanel.repaint();
+        }
+        renderedCards = cards;
+    }
 
-        player1Label.setText("Player 1 - VP: " + state.getP1VP() + " | Chips: " + formatChips(state.getP1Chips()));
-        player2Label.setText("Player 2 - VP: " + state.getP2VP() + " | Chips: " + formatChips(state.getP2Chips()));
+    private static void setText(JLabel label, String text) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
+    }
+
+    private class CardView {
+        private final JPanel panel = new JPanel();
+        private final JLabel idLabel = new JLabel();
+        private final JLabel costLabel = new JLabel();
+        private final JLabel vpLabel = new JLabel();
+        private Card card;
+        private int renderedIn;
 
-        cardsPanel.removeAll();
-        for (Card card : state.getCards()) {
-            JPanel cardPanel = new JPanel();
-            cardPanel.setLayout(new BoxLayout(cardPanel, BoxLayout.Y_AXIS));
-            cardPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
-            cardPanel.setBackground(Color.WHITE);
+        CardView(int cardId) {
+            panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+            panel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
+            panel.setBackground(Color.WHITE);
 
-            JLabel idLabel = new JLabel("Card " + card.getId());
             idLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            cardPanel.add(idLabel);
+            panel.add(idLabel);
 
-            JLabel costLabel = new JLabel("Cost: " + card.getCostString());
             costLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            cardPanel.add(costLabel);
+            panel.add(costLabel);
 
-            JLabel vpLabel = new JLabel("VP: " + card.getVictoryPoints());
             vpLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            cardPanel.add(vpLabel);
+            panel.add(vpLabel);
 
             JButton buyBtn = new JButton("Buy");
             buyBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
-            buyBtn.addActionListener(e -> onCardClicked(card.getId()));
-            cardPanel.add(buyBtn);
-
-            cardsPanel.add(cardPanel);
+            buyBtn.addActionListener(e -> onCardClicked(cardId));
+            panel.add(buyBtn);
         }
 
-        cardsPanel.revalidate();
-        cardsPanel.repaint();
-
-        showError(state.getErrorMessage());
+        void update(Card newCard) {
+            if (newCard == card) {
+                return;
+            }
+            card = newCard;
+            setText(idLabel, "Card " + card.getId());
+            setText(costLabel, "Cost: " + card.getCostString());
+            setText(vpLabel, "VP: " + card.getVictoryPoints());
+        }
     }
 
     private String formatChips(Map<ChipColor, Integer> chips) {
@@ -184,9 +271,9 @@ public class GameUI extends JFrame {
 
     public void showError(String message) {
         if (message != null && !message.isEmpty()) {
-            errorLabel.setText(message);
+            setText(errorLabel, message);
         } else {
-            errorLabel.setText(" ");
+            setText(errorLabel, " ");
         }
     }
 
@@ -200,6 +287,16 @@ public class GameUI extends JFrame {
         render(controller.getViewState());
     }
 
+    public void onUndoClicked() {
+        controller.undo();
+        render(controller.getViewState());
+    }
+
+    public void onRedoClicked() {
+        controller.redo();
+        render(controller.getViewState());
+    }
+
     public void onNewGameClicked() {
         controller.newGame();
         render(controller.getViewState());
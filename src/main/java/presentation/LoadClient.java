@@ -0,0 +1,113 @@
+package presentation;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Drives a GameServer over loopback with one session per connection and
+// reports request throughput and latency percentiles. Each connection takes
+// chips and tries to buy the first card on the board every few requests,
+// starting a new game whenever one ends.
+public class LoadClient {
+    private static final String[] TAKES = {
+        "TAKE3 RED BLUE GREEN", "TAKE3 WHITE BLACK RED", "TAKE3 BLUE GREEN WHITE", "TAKE3 BLACK RED BLUE"
+    };
+    private static final int BUY_EVERY = 4;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7374;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        CountDownLatch ready = new CountDownLatch(connections);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            String session = "load-" + i;
+            results.add(pool.submit(() -> runConnection(host, port, session, requests, ready, go)));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+
+        long[] latencies = new long[connections * requests];
+        int count = 0;
+        for (Future<long[]> result : results) {
+            long[] connection = result.get();
+            System.arraycopy(connection, 0, latencies, count, connection.length);
+            count += connection.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(latencies, 0, count);
+        System.out.printf("%d connections, %d requests in %.2f s%n", connections, count, elapsed / 1e9);
+        System.out.printf("Throughput: %.0f requests/s%n", count / (elapsed / 1e9));
+        System.out.printf("Latency: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                percentile(latencies, count, 0.50) / 1e6, percentile(latencies, count, 0.99) / 1e6,
+                latencies[count - 1] / 1e6);
+    }
+
+    private static long[] runConnection(String host, int port, String session, int requests,
+            CountDownLatch ready, CountDownLatch go) throws IOException, InterruptedException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            request(in, out, "OPEN " + session);
+            String state = request(in, out, "NEW");
+            ready.countDown();
+            go.await();
+
+            long[] latencies = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                String command;
+                if (state.contains("over=true")) {
+                    command = "NEW";
+                } else if (i % BUY_EVERY == BUY_EVERY - 1 && firstCard(state) != null) {
+                    command = "BUY " + firstCard(state);
+                } else {
+                    command = TAKES[i % TAKES.length];
+                }
+                long start = System.nanoTime();
+                String reply = request(in, out, command);
+                latencies[i] = System.nanoTime() - start;
+                if (reply.startsWith("OK")) {
+                    state = reply;
+                }
+            }
+            request(in, out, "QUIT");
+            return latencies;
+        }
+    }
+
+    private static String request(BufferedReader in, Writer out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new EOFException("Server closed the connection");
+        }
+        return reply;
+    }
+
+    private static String firstCard(String state) {
+        int start = state.indexOf("cards=") + "cards=".length();
+        int end = start;
+        while (end < state.length() && Character.isDigit(state.charAt(end))) {
+            end++;
+        }
+        return end > start ? state.substring(start, end) : null;
+    }
+
+    private static long percentile(long[] sorted, int count, double fraction) {
+        return sorted[Math.min(count - 1, (int) Math.ceil(fraction * count) - 1)];
+    }
+}
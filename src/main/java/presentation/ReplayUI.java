@@ -7,6 +7,8 @@ import java.util.*;
 import java.util.List;
 
 public class ReplayUI extends JFrame {
+    private static final int FRAME_MILLIS = 16;
+
     private ReplayController controller;
     private JButton loadFileBtn;
     private JPanel cardsPanel;
@@ -19,10 +21,35 @@ public class ReplayUI extends JFrame {
     private JButton stepForwardBtn;
     private JButton resetBtn;
     private JSlider speedSlider;
+    private JSlider scrubBar;
+    private boolean updatingScrubBar;
+    private final ReplayListener listener = replay -> onReplayChanged();
+    private javax.swing.Timer frameTimer;
 
     public ReplayUI(ReplayController controller) {
         this.controller = controller;
         initializeUI();
+        controller.addListener(listener);
+    }
+
+    // Replay events only start a one-shot frame timer, so any number of
+    // events within a frame cost one render and an idle replay costs nothing.
+    private void onReplayChanged() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::onReplayChanged);
+            return;
+        }
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        controller.removeListener(listener);
+        controller.pause();
+        frameTimer.stop();
+        super.dispose();
     }
 
     private void initializeUI() {
@@ -94,18 +121,22 @@ public class ReplayUI extends JFrame {
         controlPanel.add(speedSlider);
 
         bottomPanel.add(controlPanel, BorderLayout.CENTER);
+
+        scrubBar = new JSlider(JSlider.HORIZONTAL, 0, controller.getTotalMoves(), 0);
+        scrubBar.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        scrubBar.addChangeListener(e -> onScrub());
+        bottomPanel.add(scrubBar, BorderLayout.SOUTH);
+
         add(bottomPanel, BorderLayout.SOUTH);
 
+        frameTimer = new javax.swing.Timer(FRAME_MILLIS, e -> {
+            render(controller.getViewState());
+            updatePlayButton();
+        });
+        frameTimer.setRepeats(false);
+
         render(controller.getViewState());
         setVisible(true);
-
-        javax.swing.Timer updateTimer = new javax.swing.Timer(100, e -> {
-            if (controller.isPlaying()) {
-                render(controller.getViewState());
-                updatePlayButton();
-            }
-        });
-        updateTimer.start();
     }
 
     private void onLoadFile() {
@@ -115,10 +146,12 @@ public class ReplayUI extends JFrame {
             java.io.File file = fileChooser.getSelectedFile();
             try {
                 ReplayController newController = ReplayController.fromFile(file);
+                this.controller.removeListener(listener);
                 this.controller.pause(); // stop any existing replay
                 controller = newController;
+                controller.addListener(listener);
                 render(newController.getViewState());
-                moveCountLabel.setText("Move: 0 / " + newController.getTotalMoves());
+                updatePlayButton();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this,
                         "Failed to load game: " + ex.getMessage(),
@@ -148,6 +181,7 @@ public class ReplayUI extends JFrame {
     public void render(GameViewState state) {
         currentPlayerLabel.setText("Current Player: " + (state.getCurrentPlayer() + 1));
         moveCountLabel.setText("Move: " + controller.getCurrentIndex() + " / " + controller.getTotalMoves());
+        updateScrubBar();
 
         player1Label.setText("Player 1 - VP: " + state.getP1VP() + " | Chips: " + formatChips(state.getP1Chips()));
         player2Label.setText("Player 2 - VP: " + state.getP2VP() + " | Chips: " + formatChips(state.getP2Chips()));
@@ -192,10 +226,8 @@ public class ReplayUI extends JFrame {
     private void onPlayPause() {
         if (controller.isPlaying()) {
             controller.pause();
-            playPauseBtn.setText("Play");
         } else {
             controller.play();
-            playPauseBtn.setText("Pause");
         }
     }
 
@@ -214,21 +246,33 @@ public class ReplayUI extends JFrame {
     private void onStepForward() {
         controller.pause();
         controller.stepForward();
-        render(controller.getViewState());
-        updatePlayButton();
     }
 
     private void onStepBack() {
         controller.pause();
         controller.stepBackward();
-        render(controller.getViewState());
-        updatePlayButton();
     }
 
     private void onReset() {
         controller.reset();
-        render(controller.getViewState());
-        updatePlayButton();
+    }
+
+    private void updateScrubBar() {
+        updatingScrubBar = true;
+        try {
+            scrubBar.setMaximum(controller.getTotalMoves());
+            scrubBar.setValue(controller.getCurrentIndex());
+        } finally {
+            updatingScrubBar = false;
+        }
+    }
+
+    private void onScrub() {
+        if (updatingScrubBar) {
+            return;
+        }
+        controller.pause();
+        controller.seekTo(scrubBar.getValue());
     }
 
     private void onSpeedChange() {
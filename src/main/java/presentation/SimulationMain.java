@@ -0,0 +1,32 @@
+package presentation;
+
+import domain.*;
+import java.util.function.Supplier;
+
+public class SimulationMain {
+    private static final long DEFAULT_GAMES = 10000;
+    private static final int MAX_MOVES = 1000;
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+        Supplier<PlayerStrategy> first = strategy(args.length > 1 ? args[1] : "random");
+        Supplier<PlayerStrategy> second = strategy(args.length > 2 ? args[2] : "random");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SimulationRunner runner = new SimulationRunner(first, second, threads, MAX_MOVES);
+        System.out.println(runner.run(games));
+    }
+
+    private static Supplier<PlayerStrategy> strategy(String name) {
+        switch (name) {
+            case "random":
+                return RandomStrategy::new;
+            case "mcts":
+                return () -> new MctsStrategy(1, 20, Integer.MAX_VALUE);
+            case "alphabeta":
+                return () -> new AlphaBetaStrategy(20, 64, 16);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+}
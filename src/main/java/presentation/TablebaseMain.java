@@ -0,0 +1,32 @@
+package presentation;
+
+import domain.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TablebaseMain {
+    private static final String DEFAULT_PATH = "tablebase.bin";
+    private static final int DEFAULT_MAX_CARDS = 3;
+
+    public static void main(String[] args) {
+        Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_PATH);
+        int maxCards = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_CARDS;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Board deck = new Board();
+        long positions = TablebaseGenerator.countPositions(deck, maxCards);
+        System.out.println("Solving " + positions + " positions with up to " + maxCards + " cards left on "
+                + threads + " threads");
+
+        long start = System.nanoTime();
+        try {
+            new TablebaseGenerator(deck, maxCards, threads).generate(path);
+        } catch (IOException e) {
+            System.err.println("Error generating tablebase: " + e.getMessage());
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %s in %.1f s (%.0f positions/s)%n", path, seconds, positions / seconds);
+    }
+}
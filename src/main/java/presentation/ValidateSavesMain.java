@@ -0,0 +1,50 @@
+package presentation;
+
+import datasource.*;
+import domain.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+// Validates save files in a directory, or every backup in a BackupStore:
+//   ValidateSavesMain [dir] [glob] [threads]
+//   ValidateSavesMain --backups <dir> [threads]
+public class ValidateSavesMain {
+    private static final String DEFAULT_GLOB = "*.sav";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--backups")) {
+            if (args.length < 2) {
+                System.err.println("Usage: ValidateSavesMain --backups <dir> [threads]");
+                System.exit(2);
+            }
+            BackupStore store = BackupStore.open(Paths.get(args[1]), RetentionPolicy.keepAll());
+            report(new SaveValidator(threads(args, 2)).validateBackups(store));
+            return;
+        }
+
+        Path directory = Paths.get(args.length > 0 ? args[0] : ".");
+        String glob = args.length > 1 ? args[1] : DEFAULT_GLOB;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        report(new SaveValidator(threads(args, 2)).validate(files));
+    }
+
+    private static int threads(String[] args, int index) {
+        return args.length > index ? Integer.parseInt(args[index]) : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static void report(ValidationReport report) {
+        System.out.println(report);
+        if (!report.getProblems().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AlphaBetaStrategyTest {
+    private static final int DEPTH = 3;
+    private static final int VP_SCALE = 100;
+
+    // The pruned search must pick a root move whose plain minimax value is the
+    // best available; ties between equally good moves are fine.
+    @Test
+    void rootMoveMatchesBruteForceMinimax() {
+        Random random = new Random(374);
+        int checked = 0;
+        while (checked < 40) {
+            Board deck = new Board();
+            GameState state = randomPosition(deck, random);
+            if (state.isGameOver()) {
+                continue;
+            }
+
+            AlphaBetaStrategy strategy = new AlphaBetaStrategy(60_000, DEPTH, 16);
+            int chosen = strategy.chooseMove(state, deck);
+            assertEquals(DEPTH, strategy.getLastDepth());
+
+            int best = Integer.MIN_VALUE;
+            int[] moves = new int[GameState.MAX_LEGAL_MOVES];
+            int count = state.legalMoves(deck, moves);
+            for (int i = 0; i < count; i++) {
+                best = Math.max(best, scoreChild(strategy, deck, state, moves[i], DEPTH));
+            }
+            assertTrue(state.isLegal(deck, chosen));
+            assertEquals(best, scoreChild(strategy, deck, state, chosen, DEPTH), "position " + state);
+            checked++;
+        }
+    }
+
+    private static GameState randomPosition(Board deck, Random random) {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1", null));
+        players.add(new Player("Player 2", null));
+        GameState state = new Game(deck, players, null).toState();
+        int[] moves = new int[GameState.MAX_LEGAL_MOVES];
+        int plies = random.nextInt(40);
+        for (int i = 0; i < plies && !state.isGameOver(); i++) {
+            int count = state.legalMoves(deck, moves);
+            state = state.apply(deck, moves[random.nextInt(count)]);
+        }
+        return state;
+    }
+
+    private static int scoreChild(AlphaBetaStrategy strategy, Board deck, GameState parent, int move, int depth) {
+        GameState child = parent.apply(deck, move);
+        int mover = parent.getCurrentPlayer();
+        int gain = (child.getVictoryPoints(mover) - parent.getVictoryPoints(mover)) * VP_SCALE;
+        if (child.isGameOver()) {
+            return gain;
+        }
+        return gain - minimax(strategy, deck, child, depth - 1);
+    }
+
+    private static int minimax(AlphaBetaStrategy strategy, Board deck, GameState state, int depth) {
+        int[] moves = new int[GameState.MAX_LEGAL_MOVES];
+        int count = depth <= 0 ? 0 : state.legalMoves(deck, moves);
+        if (count == 0) {
+            return strategy.evaluate(state);
+        }
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            best = Math.max(best, scoreChild(strategy, deck, state, moves[i], depth));
+        }
+        return best;
+    }
+}